@@ -5,11 +5,13 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.client.ResourceAccessException;
 
 import java.util.Objects;
 
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
 
 @RestControllerAdvice
 public class ErrorHandler {
@@ -31,6 +33,12 @@ public class ErrorHandler {
         return new ErrorResponse(Objects.requireNonNull(e.getFieldError()).getDefaultMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(SERVICE_UNAVAILABLE)
+    public ErrorResponse handle(final ResourceAccessException e) {
+        return new ErrorResponse(e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(INTERNAL_SERVER_ERROR)
     public ErrorResponse handle(final Throwable e) {
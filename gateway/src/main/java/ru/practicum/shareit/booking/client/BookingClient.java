@@ -3,15 +3,20 @@ package ru.practicum.shareit.booking.client;
 import ru.practicum.shareit.advice.enums.BookingState;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
 
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import org.springframework.beans.factory.annotation.Value;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -20,36 +25,42 @@ public class BookingClient extends BaseClient {
 
     @Autowired
     public BookingClient(@Value("${shareit-server.url}") String serverUrl,
-                         RestTemplateBuilder builder) {
+                         RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory,
+                         RequestCoalescer requestCoalescer) {
         super(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                .build()
+                .requestFactory(() -> requestFactory)
+                .build(),
+                null,
+                requestCoalescer
         );
     }
 
     public ResponseEntity<Object> getBookings(Long userId,
                                               BookingState state,
                                               Integer from,
-                                              Integer size) {
+                                              Integer size,
+                                              String cursor) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
         );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        return getPage("?state={state}&from={from}&size={size}", userId, parameters, cursor);
     }
 
     public ResponseEntity<Object> getOwnerBookings(Long userId,
                                                    BookingState state,
                                                    Integer from,
-                                                   Integer size) {
+                                                   Integer size,
+                                                   String cursor) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
         );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        return getPage("/owner?state={state}&from={from}&size={size}", userId, parameters, cursor);
     }
 
     public ResponseEntity<Object> createBooking(Long userId,
@@ -57,6 +68,11 @@ public class BookingClient extends BaseClient {
         return post("", userId, bookingDto);
     }
 
+    public ResponseEntity<Object> createBookings(Long userId,
+                                                 List<BookingDto> bookingDtos) {
+        return post("/batch", userId, bookingDtos);
+    }
+
     public ResponseEntity<Object> getBooking(Long userId,
                                              Long bookingId) {
         return get("/" + bookingId, userId);
@@ -68,4 +84,14 @@ public class BookingClient extends BaseClient {
         String path = "/" + bookingId + "?approved={approved}";
         return patch(path, userId, parameters, null);
     }
+
+    public void exportBookings(Long userId,
+                               HttpServletResponse response) throws IOException {
+        stream(HttpMethod.GET, "/export", userId, null, null, response);
+    }
+
+    public void exportOwnerBookings(Long userId,
+                                    HttpServletResponse response) throws IOException {
+        stream(HttpMethod.GET, "/owner/export", userId, null, null, response);
+    }
 }
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.booking.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
@@ -12,6 +14,9 @@ import ru.practicum.shareit.booking.client.BookingClient;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.validation.Marker;
 
+import java.io.IOException;
+import java.util.List;
+
 @RestController
 @AllArgsConstructor
 @Validated
@@ -26,6 +31,14 @@ public class BookingController {
         return bookingClient.createBooking(userId, bookingDto);
     }
 
+    @PostMapping("/batch")
+    @Validated(Marker.OnCreate.class)
+    public ResponseEntity<Object> createBookings(@NotEmpty(groups = Marker.OnCreate.class)
+                                                 @RequestBody List<@Valid BookingDto> bookingDtos,
+                                                 @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingClient.createBookings(userId, bookingDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> approveBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
                              @PathVariable("bookingId") Long bookingId,
@@ -33,6 +46,18 @@ public class BookingController {
         return bookingClient.approveBooking(userId, bookingId, approved);
     }
 
+    @GetMapping("/export")
+    public void exportBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                               HttpServletResponse response) throws IOException {
+        bookingClient.exportBookings(userId, response);
+    }
+
+    @GetMapping("/owner/export")
+    public void exportOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                    HttpServletResponse response) throws IOException {
+        bookingClient.exportOwnerBookings(userId, response);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
                           @PathVariable("bookingId") Long bookingId) {
@@ -46,8 +71,9 @@ public class BookingController {
                                                @PositiveOrZero @RequestParam(name = "from", defaultValue = "0")
                                                    Integer from,
                                                @Positive @RequestParam(name = "size", defaultValue = "10")
-                                                   Integer size) {
-        return bookingClient.getBookings(userId, state, from, size);
+                                                   Integer size,
+                                               @RequestParam(name = "cursor", required = false) String cursor) {
+        return bookingClient.getBookings(userId, state, from, size, cursor);
     }
 
     @GetMapping("/owner")
@@ -57,7 +83,9 @@ public class BookingController {
                                                    @PositiveOrZero @RequestParam(name = "from", defaultValue = "0")
                                                        Integer from,
                                                    @Positive @RequestParam(name = "size", defaultValue = "10")
-                                                       Integer size) {
-        return bookingClient.getOwnerBookings(userId, state, from, size);
+                                                       Integer size,
+                                                   @RequestParam(name = "cursor", required = false)
+                                                       String cursor) {
+        return bookingClient.getOwnerBookings(userId, state, from, size, cursor);
     }
 }
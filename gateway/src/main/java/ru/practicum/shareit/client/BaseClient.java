@@ -1,11 +1,18 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
@@ -13,10 +20,25 @@ import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 
 public class BaseClient {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "proxy-authenticate",
+            "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade", "content-length");
+
     protected final RestTemplate rest;
+    @Nullable
+    private final ResponseCache responseCache;
+    @Nullable
+    private final RequestCoalescer requestCoalescer;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, null, null);
+    }
+
+    public BaseClient(RestTemplate rest, @Nullable ResponseCache responseCache,
+                      @Nullable RequestCoalescer requestCoalescer) {
         this.rest = rest;
+        this.responseCache = responseCache;
+        this.requestCoalescer = requestCoalescer;
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -31,6 +53,30 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
+    protected ResponseEntity<Object> getCached(String path, Long userId, @Nullable String ifNoneMatch) {
+        if (responseCache == null) {
+            return get(path, userId, null);
+        }
+        ResponseCache.Entry entry = responseCache.fetch(cacheKey(path) + "#" + userId, etag -> {
+            HttpHeaders headers = defaultHeaders(userId);
+            if (etag != null) {
+                headers.setIfNoneMatch(etag);
+            }
+            return send(HttpMethod.GET, path, headers, null, null);
+        });
+        return entry.respond(ifNoneMatch);
+    }
+
+    protected ResponseEntity<Object> getPage(String path, Long userId, Map<String, Object> parameters,
+                                             @Nullable String cursor) {
+        if (cursor == null) {
+            return get(path, userId, parameters);
+        }
+        Map<String, Object> cursorParameters = new HashMap<>(parameters);
+        cursorParameters.put("cursor", cursor);
+        return get(path + "&cursor={cursor}", userId, cursorParameters);
+    }
+
     protected <T> ResponseEntity<Object> post(String path, T body) {
         return post(path, null, null, body);
     }
@@ -79,20 +125,85 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    protected void stream(HttpMethod method, String path, Long userId, @Nullable MediaType contentType,
+                          @Nullable InputStream body, HttpServletResponse response) throws IOException {
+        try {
+            rest.execute(path, method,
+                    request -> {
+                        request.getHeaders().set(USER_ID_HEADER, String.valueOf(userId));
+                        if (body != null) {
+                            request.getHeaders().setContentType(contentType);
+                            body.transferTo(request.getBody());
+                        }
+                    },
+                    serverResponse -> {
+                        if (method != HttpMethod.GET && serverResponse.getStatusCode().is2xxSuccessful()) {
+                            evictAfterWrite(path);
+                        }
+                        response.setStatus(serverResponse.getStatusCode().value());
+                        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+                        serverResponse.getBody().transferTo(response.getOutputStream());
+                        return null;
+                    });
+        } catch (HttpStatusCodeException e) {
+            response.setStatus(e.getStatusCode().value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getOutputStream().write(e.getResponseBodyAsByteArray());
+        }
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        ResponseEntity<Object> response = send(method, path, defaultHeaders(userId), parameters, body);
+        if (method != HttpMethod.GET && response.getStatusCode().is2xxSuccessful()) {
+            evictAfterWrite(path);
+        }
+        return response;
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
+    private <T> ResponseEntity<Object> send(HttpMethod method, String path, HttpHeaders headers,
+                                            @Nullable Map<String, Object> parameters, @Nullable T body) {
+        if (requestCoalescer == null || method != HttpMethod.GET) {
+            return exchange(method, path, headers, parameters, body);
+        }
+        String key = cacheKey(path, parameters) + "#" + headers.getFirst(USER_ID_HEADER)
+                + "#" + headers.getFirst(HttpHeaders.IF_NONE_MATCH);
+        return requestCoalescer.execute(key, () -> exchange(method, path, headers, parameters, body));
+    }
+
+    private <T> ResponseEntity<Object> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                @Nullable Map<String, Object> parameters, @Nullable T body) {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
+
+        ResponseEntity<byte[]> shareitServerResponse;
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
             }
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return prepareGatewayResponse(e.getStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray());
+        }
+        return prepareGatewayResponse(shareitServerResponse.getStatusCode(), shareitServerResponse.getHeaders(),
+                shareitServerResponse.getBody());
+    }
+
+    private void evictAfterWrite(String path) {
+        if (requestCoalescer != null) {
+            requestCoalescer.evictPrefix(cacheKey(""));
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        String id = path.replaceFirst("^/", "").split("[/?]", 2)[0];
+        if (responseCache != null && !id.isEmpty() && id.chars().allMatch(Character::isDigit)) {
+            responseCache.evictPrefix(cacheKey("/" + id) + "#");
+        }
+    }
+
+    private String cacheKey(String path) {
+        return rest.getUriTemplateHandler().expand(path).toString();
+    }
+
+    private String cacheKey(String path, @Nullable Map<String, Object> parameters) {
+        return parameters != null ? rest.getUriTemplateHandler().expand(path, parameters).toString() : cacheKey(path);
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -100,20 +211,27 @@ public class BaseClient {
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (userId != null) {
-            headers.set("X-Sharer-User-Id", String.valueOf(userId));
+            headers.set(USER_ID_HEADER, String.valueOf(userId));
         }
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    private static ResponseEntity<Object> prepareGatewayResponse(HttpStatusCode status,
+                                                                 @Nullable HttpHeaders headers,
+                                                                 @Nullable byte[] body) {
+        HttpHeaders gatewayHeaders = new HttpHeaders();
+        if (headers != null) {
+            headers.forEach((name, values) -> {
+                if (!name.startsWith(":") && !HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    gatewayHeaders.addAll(name, values);
+                }
+            });
         }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status).headers(gatewayHeaders);
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        if (body != null && body.length > 0) {
+            return responseBuilder.body(body);
         }
 
         return responseBuilder.build();
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+@Configuration
+public class HttpClientConfig {
+    private static final String VERSION_PROPERTY = "shareit.gateway.http.version";
+
+    @Configuration
+    @ConditionalOnProperty(name = VERSION_PROPERTY, havingValue = "HTTP_1_1", matchIfMissing = true)
+    static class Http1 {
+        @Bean(destroyMethod = "close")
+        public PoolingHttpClientConnectionManager shareitServerConnectionManager(
+                @Value("${shareit.gateway.http.max-total:200}") int maxTotal,
+                @Value("${shareit.gateway.http.max-per-route:200}") int maxPerRoute,
+                @Value("${shareit.gateway.http.connect-timeout:2s}") Duration connectTimeout,
+                @Value("${shareit.gateway.http.response-timeout:30s}") Duration responseTimeout,
+                @Value("${shareit.gateway.http.validate-after-inactivity:2s}") Duration validateAfterInactivity,
+                @Value("${shareit.gateway.http.time-to-live:5m}") Duration timeToLive) {
+            return PoolingHttpClientConnectionManagerBuilder.create()
+                    .setMaxConnTotal(maxTotal)
+                    .setMaxConnPerRoute(maxPerRoute)
+                    .setDefaultConnectionConfig(ConnectionConfig.custom()
+                            .setConnectTimeout(Timeout.of(connectTimeout))
+                            .setSocketTimeout(Timeout.of(responseTimeout))
+                            .setValidateAfterInactivity(TimeValue.of(validateAfterInactivity))
+                            .setTimeToLive(TimeValue.of(timeToLive))
+                            .build())
+                    .setDefaultSocketConfig(SocketConfig.custom()
+                            .setTcpNoDelay(true)
+                            .build())
+                    .build();
+        }
+
+        @Bean(destroyMethod = "close")
+        public CloseableHttpClient shareitServerHttpClient(
+                PoolingHttpClientConnectionManager connectionManager,
+                @Value("${shareit.gateway.http.connection-request-timeout:2s}") Duration connectionRequestTimeout,
+                @Value("${shareit.gateway.http.response-timeout:30s}") Duration responseTimeout,
+                @Value("${shareit.gateway.http.idle-eviction:30s}") Duration idleEviction) {
+            return HttpClients.custom()
+                    .setConnectionManager(connectionManager)
+                    .setDefaultRequestConfig(RequestConfig.custom()
+                            .setConnectionRequestTimeout(Timeout.of(connectionRequestTimeout))
+                            .setResponseTimeout(Timeout.of(responseTimeout))
+                            .build())
+                    .evictExpiredConnections()
+                    .evictIdleConnections(TimeValue.of(idleEviction))
+                    .disableAutomaticRetries()
+                    .build();
+        }
+
+        @Bean
+        public ClientHttpRequestFactory shareitServerRequestFactory(
+                CloseableHttpClient httpClient,
+                @Value("${shareit.gateway.http.max-total:200}") int maxTotal,
+                @Value("${shareit.gateway.http.max-per-route:200}") int maxPerRoute,
+                @Value("${shareit.gateway.http.connection-request-timeout:2s}") Duration connectionRequestTimeout) {
+            return new PooledRequestFactory(httpClient, Math.min(maxTotal, maxPerRoute), connectionRequestTimeout);
+        }
+
+        @Bean
+        public MeterBinder shareitServerConnectionPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+            return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "shareit-server");
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = VERSION_PROPERTY, havingValue = "HTTP_2")
+    static class Http2 {
+        @Bean
+        public HttpClient shareitServerHttpClient(
+                @Value("${shareit.gateway.http.connect-timeout:2s}") Duration connectTimeout) {
+            return HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(connectTimeout)
+                    .build();
+        }
+
+        @Bean
+        public ClientHttpRequestFactory shareitServerRequestFactory(
+                HttpClient httpClient,
+                @Value("${shareit.gateway.http.response-timeout:30s}") Duration responseTimeout) {
+            JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+            requestFactory.setReadTimeout(responseTimeout);
+            return requestFactory;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.client;
+
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class PooledRequestFactory implements ClientHttpRequestFactory {
+    private final ClientHttpRequestFactory delegate;
+    private final Semaphore connections;
+    private final long connectionRequestTimeoutNanos;
+
+    PooledRequestFactory(CloseableHttpClient httpClient, int maxConnections, Duration connectionRequestTimeout) {
+        this.delegate = new HttpComponentsClientHttpRequestFactory(httpClient);
+        this.connections = new Semaphore(maxConnections, true);
+        this.connectionRequestTimeoutNanos = connectionRequestTimeout.toNanos();
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        return new Request(delegate.createRequest(uri, httpMethod));
+    }
+
+    private ClientHttpResponse execute(ClientHttpRequest request) throws IOException {
+        try {
+            if (!connections.tryAcquire(connectionRequestTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new IOException("Нет свободного соединения с сервером");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Ожидание соединения с сервером прервано", e);
+        }
+        try {
+            return new Response(request.execute());
+        } catch (IOException | RuntimeException | Error e) {
+            connections.release();
+            throw e;
+        }
+    }
+
+    private class Request implements ClientHttpRequest {
+        private final ClientHttpRequest request;
+
+        Request(ClientHttpRequest request) {
+            this.request = request;
+        }
+
+        @Override
+        public ClientHttpResponse execute() throws IOException {
+            return PooledRequestFactory.this.execute(request);
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            return request.getBody();
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return request.getMethod();
+        }
+
+        @Override
+        public URI getURI() {
+            return request.getURI();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return request.getHeaders();
+        }
+    }
+
+    private class Response implements ClientHttpResponse {
+        private final ClientHttpResponse response;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Response(ClientHttpResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return response.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return response.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return response.getBody();
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                try {
+                    response.close();
+                } finally {
+                    connections.release();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+@Component
+public class RequestCoalescer {
+    public static final String REQUESTS_METRIC = "shareit.gateway.coalescing.requests";
+
+    private final Map<String, CompletableFuture<ResponseEntity<Object>>> flights = new ConcurrentHashMap<>();
+    private final Duration window;
+    private final long waitTimeoutNanos;
+    private final Executor expiry;
+    private final Counter upstream;
+    private final Counter coalesced;
+
+    public RequestCoalescer(@Value("${shareit.gateway.coalescing.window:0ms}") Duration window,
+                            @Value("${shareit.gateway.coalescing.wait-timeout:35s}") Duration waitTimeout,
+                            MeterRegistry meterRegistry) {
+        this.window = window;
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+        this.expiry = CompletableFuture.delayedExecutor(window.toNanos(), TimeUnit.NANOSECONDS);
+        this.upstream = meterRegistry.counter(REQUESTS_METRIC, "result", "upstream");
+        this.coalesced = meterRegistry.counter(REQUESTS_METRIC, "result", "coalesced");
+        Gauge.builder("shareit.gateway.coalescing.in-flight", flights, Map::size)
+                .register(meterRegistry);
+        Gauge.builder("shareit.gateway.coalescing.ratio", this, RequestCoalescer::ratio)
+                .register(meterRegistry);
+    }
+
+    public ResponseEntity<Object> execute(String key, Supplier<ResponseEntity<Object>> call) {
+        CompletableFuture<ResponseEntity<Object>> flight = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> existing = flights.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        upstream.increment();
+        boolean completed = false;
+        try {
+            ResponseEntity<Object> response = call.get();
+            flight.complete(response);
+            completed = true;
+            return response;
+        } catch (Throwable e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            release(key, flight, completed ? window : Duration.ZERO);
+        }
+    }
+
+    public void evictPrefix(String prefix) {
+        flights.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    private void release(String key, CompletableFuture<ResponseEntity<Object>> flight, Duration delay) {
+        if (delay.isZero()) {
+            flights.remove(key, flight);
+        } else {
+            expiry.execute(() -> flights.remove(key, flight));
+        }
+    }
+
+    private double ratio() {
+        double total = upstream.count() + coalesced.count();
+        return total == 0 ? 0 : coalesced.count() / total;
+    }
+
+    private ResponseEntity<Object> await(CompletableFuture<ResponseEntity<Object>> flight) {
+        try {
+            return flight.get(waitTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ResourceAccessException("Сервер не ответил на совмещённый запрос вовремя");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Ожидание совмещённого запроса прервано");
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+@Component
+public class ResponseCache {
+    public static final String REQUESTS_METRIC = "shareit.gateway.cache.requests";
+
+    private final Map<String, Entry> entries;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long ttlNanos;
+    private final MeterRegistry meterRegistry;
+
+    public ResponseCache(@Value("${shareit.gateway.cache.ttl:5s}") Duration ttl,
+                         @Value("${shareit.gateway.cache.max-entries:10000}") int maxEntries,
+                         MeterRegistry meterRegistry) {
+        this.ttlNanos = ttl.toNanos();
+        this.meterRegistry = meterRegistry;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        Gauge.builder("shareit.gateway.cache.size", this, ResponseCache::size)
+                .register(meterRegistry);
+    }
+
+    public Entry fetch(String key, Function<String, ResponseEntity<Object>> loader) {
+        Entry cached;
+        lock.lock();
+        try {
+            cached = entries.get(key);
+        } finally {
+            lock.unlock();
+        }
+        long now = System.nanoTime();
+        if (cached != null && cached.expiresAt() - now > 0) {
+            count("hit");
+            return cached;
+        }
+
+        ResponseEntity<Object> response = loader.apply(cached != null ? cached.etag() : null);
+        if (cached != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            count("revalidated");
+            return put(key, new Entry(cached.response(), cached.etag(), now + ttlNanos));
+        }
+
+        count("miss");
+        if (response.getStatusCode() != HttpStatus.OK) {
+            evict(key);
+            return new Entry(response, null, now);
+        }
+        return put(key, new Entry(response, response.getHeaders().getETag(), now + ttlNanos));
+    }
+
+    public void evictPrefix(String prefix) {
+        lock.lock();
+        try {
+            entries.keySet().removeIf(key -> key.startsWith(prefix));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evict(String key) {
+        lock.lock();
+        try {
+            entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Entry put(String key, Entry entry) {
+        lock.lock();
+        try {
+            entries.put(key, entry);
+        } finally {
+            lock.unlock();
+        }
+        return entry;
+    }
+
+    private int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void count(String result) {
+        meterRegistry.counter(REQUESTS_METRIC, "result", result).increment();
+    }
+
+    public record Entry(ResponseEntity<Object> response, @Nullable String etag, long expiresAt) {
+        public ResponseEntity<Object> respond(@Nullable String ifNoneMatch) {
+            if (etag != null && ifNoneMatch != null && matches(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            return response;
+        }
+
+        private boolean matches(String ifNoneMatch) {
+            String current = stripWeak(etag);
+            return Arrays.stream(ifNoneMatch.split(","))
+                    .map(String::trim)
+                    .anyMatch(candidate -> candidate.equals("*") || stripWeak(candidate).equals(current));
+        }
+
+        private static String stripWeak(String tag) {
+            return tag.startsWith("W/") ? tag.substring(2) : tag;
+        }
+    }
+}
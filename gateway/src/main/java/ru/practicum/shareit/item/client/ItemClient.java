@@ -2,15 +2,23 @@ package ru.practicum.shareit.item.client;
 
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.client.BaseClient;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import org.springframework.beans.factory.annotation.Value;
 import ru.practicum.shareit.item.dto.CommentDto;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @Service
@@ -19,24 +27,30 @@ public class ItemClient extends BaseClient {
 
     @Autowired
     public ItemClient(@Value("${shareit-server.url}") String serverUrl,
-                      RestTemplateBuilder builder) {
+                      RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory,
+                      ResponseCache responseCache,
+                      RequestCoalescer requestCoalescer) {
         super(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                .build()
+                .requestFactory(() -> requestFactory)
+                .build(),
+                responseCache,
+                requestCoalescer
         );
     }
 
     public ResponseEntity<Object> searchItems(String text,
                                               Long userId,
                                               Integer from,
-                                              Integer size) {
+                                              Integer size,
+                                              String cursor) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        return getPage("/search?text={text}&from={from}&size={size}", userId, parameters, cursor);
     }
 
     public ResponseEntity<Object> createComment(CommentDto commentDto,
@@ -53,12 +67,13 @@ public class ItemClient extends BaseClient {
 
     public ResponseEntity<Object> getItems(Long userId,
                                            Integer from,
-                                           Integer size) {
+                                           Integer size,
+                                           String cursor) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("?from={from}&size={size}", userId, parameters);
+        return getPage("?from={from}&size={size}", userId, parameters, cursor);
     }
 
     public ResponseEntity<Object> createItem(ItemDto itemDto,
@@ -67,8 +82,32 @@ public class ItemClient extends BaseClient {
     }
 
     public ResponseEntity<Object> getItem(Long itemId,
-                                          Long userId) {
-        return get("/" + itemId, userId);
+                                          Long userId,
+                                          String ifNoneMatch) {
+        return getCached("/" + itemId, userId, ifNoneMatch);
+    }
+
+    public ResponseEntity<Object> getAvailability(Long itemId,
+                                                  Long userId,
+                                                  LocalDateTime from,
+                                                  LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
+    }
+
+    public void importItems(Long userId,
+                            MediaType contentType,
+                            InputStream body,
+                            HttpServletResponse response) throws IOException {
+        stream(HttpMethod.POST, "/import", userId, contentType, body, response);
+    }
+
+    public void exportItems(Long userId,
+                            HttpServletResponse response) throws IOException {
+        stream(HttpMethod.GET, "/export", userId, null, null, response);
     }
 
     public void deleteItem(Long itemId) {
@@ -1,9 +1,14 @@
 package ru.practicum.shareit.item.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -12,6 +17,9 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.validation.Marker;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+
 
 @RestController
 @Validated
@@ -27,6 +35,21 @@ public class ItemController {
         return itemClient.createItem(itemDto, userId);
     }
 
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_NDJSON_VALUE})
+    public void importItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        itemClient.importItems(userId, MediaType.parseMediaType(request.getContentType()),
+                request.getInputStream(), response);
+    }
+
+    @GetMapping("/export")
+    public void exportItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                            HttpServletResponse response) throws IOException {
+        itemClient.exportItems(userId, response);
+    }
+
     @PatchMapping("/{itemId}")
     @Validated(Marker.OnUpdate.class)
     public ResponseEntity<Object> updateItem(@Valid @RequestBody ItemDto itemDto,
@@ -37,8 +60,20 @@ public class ItemController {
 
     @GetMapping("/{itemId}")
     public ResponseEntity<Object> getItem(@PathVariable Long itemId,
-                       @RequestHeader("X-Sharer-User-Id") Long userId) {
-        return itemClient.getItem(itemId, userId);
+                       @RequestHeader("X-Sharer-User-Id") Long userId,
+                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return itemClient.getItem(itemId, userId, ifNoneMatch);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(@PathVariable Long itemId,
+                                                  @RequestHeader("X-Sharer-User-Id") Long userId,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                  LocalDateTime from,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                  LocalDateTime to) {
+        if (!from.isBefore(to)) throw new IllegalArgumentException("Field from must be before to");
+        return itemClient.getAvailability(itemId, userId, from, to);
     }
 
     @GetMapping("/search")
@@ -47,8 +82,9 @@ public class ItemController {
                                               @PositiveOrZero @RequestParam(name = "from", defaultValue = "0")
                                                   Integer from,
                                               @Positive @RequestParam(name = "size", defaultValue = "10")
-                                                  Integer size) {
-        return itemClient.searchItems(searchText, userId, from, size);
+                                                  Integer size,
+                                              @RequestParam(name = "cursor", required = false) String cursor) {
+        return itemClient.searchItems(searchText, userId, from, size, cursor);
     }
 
     @GetMapping
@@ -56,8 +92,9 @@ public class ItemController {
                                               @PositiveOrZero @RequestParam(name = "from", defaultValue = "0")
                                               Integer from,
                                               @Positive @RequestParam(name = "size", defaultValue = "10")
-                                                  Integer size) {
-        return itemClient.getItems(userId, from, size);
+                                                  Integer size,
+                                              @RequestParam(name = "cursor", required = false) String cursor) {
+        return itemClient.getItems(userId, from, size, cursor);
     }
 
     @Validated(Marker.OnCreate.class)
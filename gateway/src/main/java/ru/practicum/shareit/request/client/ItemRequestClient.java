@@ -1,7 +1,7 @@
 package ru.practicum.shareit.request.client;
 
 import org.springframework.stereotype.Service;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.util.DefaultUriBuilderFactory;
@@ -9,6 +9,8 @@ import org.springframework.beans.factory.annotation.Value;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import org.springframework.http.ResponseEntity;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
 
 import java.util.Map;
 
@@ -17,11 +19,16 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             ClientHttpRequestFactory requestFactory,
+                             ResponseCache responseCache,
+                             RequestCoalescer requestCoalescer) {
         super(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                .build()
+                .requestFactory(() -> requestFactory)
+                .build(),
+                responseCache,
+                requestCoalescer
         );
     }
 
@@ -30,23 +37,23 @@ public class ItemRequestClient extends BaseClient {
 
     }
 
-    public ResponseEntity<Object> getAllItemRequests(Integer from, Integer size, Long userId) {
+    public ResponseEntity<Object> getAllItemRequests(Integer from, Integer size, Long userId, String cursor) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("/all?from={from}&size={size}", userId, parameters);
+        return getPage("/all?from={from}&size={size}", userId, parameters, cursor);
     }
 
-    public ResponseEntity<Object> getItemRequest(Long requestId, Long userId) {
-        return get("/" + requestId, userId);
+    public ResponseEntity<Object> getItemRequest(Long requestId, Long userId, String ifNoneMatch) {
+        return getCached("/" + requestId, userId, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getItemRequests(Long userId, Integer from, Integer size) {
+    public ResponseEntity<Object> getItemRequests(Long userId, Integer from, Integer size, String cursor) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("?from={from}&size={size}", userId, parameters);
+        return getPage("?from={from}&size={size}", userId, parameters, cursor);
     }
 }
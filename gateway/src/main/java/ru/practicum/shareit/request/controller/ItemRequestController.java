@@ -4,6 +4,7 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -30,8 +31,10 @@ public class ItemRequestController {
                                                   @PositiveOrZero @RequestParam(name = "from", defaultValue = "0")
                                                   Integer from,
                                                   @Positive @RequestParam(name = "size", defaultValue = "10")
-                                                      Integer size) {
-        return itemRequestClient.getItemRequests(userId, from, size);
+                                                      Integer size,
+                                                  @RequestParam(name = "cursor", required = false)
+                                                      String cursor) {
+        return itemRequestClient.getItemRequests(userId, from, size, cursor);
     }
 
     @GetMapping("/all")
@@ -39,13 +42,17 @@ public class ItemRequestController {
                                                      @PositiveOrZero @RequestParam(name = "from", defaultValue = "0")
                                                      Integer from,
                                                      @Positive @RequestParam(name = "size", defaultValue = "10")
-                                                         Integer size) {
-        return itemRequestClient.getAllItemRequests(from, size, userId);
+                                                         Integer size,
+                                                     @RequestParam(name = "cursor", required = false)
+                                                         String cursor) {
+        return itemRequestClient.getAllItemRequests(from, size, userId, cursor);
     }
 
     @GetMapping("{requestId}")
     public ResponseEntity<Object> getItemRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                       @PathVariable(name = "requestId") Long requestId) {
-        return itemRequestClient.getItemRequest(requestId, userId);
+                                       @PathVariable(name = "requestId") Long requestId,
+                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                       String ifNoneMatch) {
+        return itemRequestClient.getItemRequest(requestId, userId, ifNoneMatch);
     }
 }
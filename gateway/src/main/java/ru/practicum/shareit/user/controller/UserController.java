@@ -1,8 +1,11 @@
 package ru.practicum.shareit.user.controller;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -19,13 +22,19 @@ public class UserController {
     private final UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
-        return userClient.getUsers();
+    public ResponseEntity<Object> getAllUsers(@PositiveOrZero @RequestParam(name = "from", required = false)
+                                              Integer from,
+                                              @Positive @RequestParam(name = "size", required = false)
+                                              Integer size,
+                                              @RequestParam(name = "cursor", required = false) String cursor) {
+        return userClient.getUsers(from, size, cursor);
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUser(@NotNull @PathVariable Long userId) {
-        return userClient.getUser(userId);
+    public ResponseEntity<Object> getUser(@NotNull @PathVariable Long userId,
+                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                          String ifNoneMatch) {
+        return userClient.getUser(userId, ifNoneMatch);
     }
 
     @PostMapping
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.ExpectedCount.times;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class BaseClientTest {
+    private static final String LIST = "http://server/items?from=0&size=10";
+    private static final Map<String, Object> FIRST_PAGE = Map.of("from", 0, "size", 10);
+
+    private RestTemplate rest;
+    private MockRestServiceServer server;
+    private BaseClient client;
+
+    @BeforeEach
+    void setUp() {
+        rest = new RestTemplate();
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory("http://server/items"));
+        server = MockRestServiceServer.bindTo(rest).build();
+        client = new BaseClient(rest, null, new RequestCoalescer(Duration.ofMinutes(1), Duration.ofSeconds(5),
+                new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void testWriteEvictsCachedResource() {
+        BaseClient cachingClient = new BaseClient(rest,
+                new ResponseCache(Duration.ofMinutes(1), 10, new SimpleMeterRegistry()), null);
+        server.expect(times(2), requestTo("http://server/items/7")).andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON).header(HttpHeaders.ETAG, "\"1\""));
+        server.expect(once(), requestTo("http://server/items/7")).andExpect(method(HttpMethod.PATCH))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+
+        assertEquals(HttpStatus.OK, cachingClient.getCached("/7", 1L, null).getStatusCode());
+        assertEquals(HttpStatus.NOT_MODIFIED, cachingClient.getCached("/7", 1L, "\"1\"").getStatusCode());
+        cachingClient.patch("/7", 1L, Map.of("name", "Saw"));
+        assertEquals(HttpStatus.OK, cachingClient.getCached("/7", 1L, null).getStatusCode());
+        server.verify();
+    }
+
+    @Test
+    void testWritesEvictCoalescedListsOfTheClient() {
+        server.expect(times(3), requestTo(LIST)).andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+        server.expect(once(), requestTo("http://server/items")).andExpect(method(HttpMethod.POST))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+        server.expect(once(), requestTo("http://server/items/7")).andExpect(method(HttpMethod.PATCH))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+
+        client.get("?from={from}&size={size}", 1L, FIRST_PAGE);
+        client.get("?from={from}&size={size}", 1L, FIRST_PAGE);
+        client.post("", 1L, Map.of("name", "Drill"));
+        client.get("?from={from}&size={size}", 1L, FIRST_PAGE);
+        client.patch("/7", 2L, Map.of("name", "Saw"));
+        ResponseEntity<Object> response = client.get("?from={from}&size={size}", 1L, FIRST_PAGE);
+
+        assertEquals("[]", new String((byte[]) response.getBody(), StandardCharsets.UTF_8));
+        server.verify();
+    }
+}
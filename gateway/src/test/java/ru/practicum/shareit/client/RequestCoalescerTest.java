@@ -0,0 +1,192 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestCoalescerTest {
+    private static final int WAITERS = 4;
+
+    private MeterRegistry meterRegistry;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = Executors.newFixedThreadPool(WAITERS + 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testConcurrentCallsShareOneUpstreamCall() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(Duration.ZERO, Duration.ofSeconds(5), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        Future<ResponseEntity<Object>> leader = executor.submit(() -> coalescer.execute("key", () -> {
+            calls.incrementAndGet();
+            await(release);
+            return ResponseEntity.ok("body");
+        }));
+        awaitInFlight(coalescer);
+        List<Future<ResponseEntity<Object>>> waiters = submitWaiters(coalescer, "key", calls);
+        awaitCoalesced(WAITERS);
+        release.countDown();
+
+        assertEquals("body", leader.get(5, TimeUnit.SECONDS).getBody());
+        for (Future<ResponseEntity<Object>> waiter : waiters) {
+            assertEquals("body", waiter.get(5, TimeUnit.SECONDS).getBody());
+        }
+        assertEquals(1, calls.get());
+        assertEquals(WAITERS / (WAITERS + 1.0), meterRegistry.get("shareit.gateway.coalescing.ratio").gauge().value());
+    }
+
+    @Test
+    void testWaitersShareTheLeadersError() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(Duration.ZERO, Duration.ofSeconds(5), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        Future<ResponseEntity<Object>> leader = executor.submit(() -> coalescer.execute("key", () -> {
+            calls.incrementAndGet();
+            await(release);
+            throw new ResourceAccessException("down");
+        }));
+        awaitInFlight(coalescer);
+        List<Future<ResponseEntity<Object>>> waiters = submitWaiters(coalescer, "key", calls);
+        awaitCoalesced(WAITERS);
+        release.countDown();
+
+        assertCause(ResourceAccessException.class, leader);
+        for (Future<ResponseEntity<Object>> waiter : waiters) {
+            assertCause(ResourceAccessException.class, waiter);
+        }
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testErrorCompletesFlightAndReleasesKey() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(Duration.ofMinutes(1), Duration.ofSeconds(5),
+                meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<ResponseEntity<Object>> leader = executor.submit(() -> coalescer.execute("key", () -> {
+            await(release);
+            throw new StackOverflowError();
+        }));
+        awaitInFlight(coalescer);
+        Future<ResponseEntity<Object>> waiter = executor.submit(() -> coalescer.execute("key",
+                () -> ResponseEntity.ok("own call")));
+        awaitCoalesced(1);
+        release.countDown();
+
+        assertCause(StackOverflowError.class, leader);
+        assertCause(StackOverflowError.class, waiter);
+        assertEquals(0.0, inFlight());
+        assertEquals("next", coalescer.execute("key", () -> ResponseEntity.ok("next")).getBody());
+    }
+
+    @Test
+    void testKeyIsReleasedAfterSuccessAndOnEviction() {
+        RequestCoalescer immediate = new RequestCoalescer(Duration.ZERO, Duration.ofSeconds(5), meterRegistry);
+        immediate.execute("key", () -> ResponseEntity.ok("first"));
+        assertEquals("second", immediate.execute("key", () -> ResponseEntity.ok("second")).getBody());
+
+        RequestCoalescer windowed = new RequestCoalescer(Duration.ofMinutes(1), Duration.ofSeconds(5),
+                new SimpleMeterRegistry());
+        windowed.execute("http://server/items?from=0#1#null", () -> ResponseEntity.ok("first"));
+        assertEquals("first", windowed.execute("http://server/items?from=0#1#null",
+                () -> ResponseEntity.ok("second")).getBody());
+
+        windowed.evictPrefix("http://server/items");
+        assertEquals("third", windowed.execute("http://server/items?from=0#1#null",
+                () -> ResponseEntity.ok("third")).getBody());
+    }
+
+    @Test
+    void testWaiterGivesUpAfterTimeout() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(Duration.ZERO, Duration.ofMillis(50), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<ResponseEntity<Object>> leader = executor.submit(() -> coalescer.execute("key", () -> {
+            await(release);
+            return ResponseEntity.ok("late");
+        }));
+        awaitInFlight(coalescer);
+
+        assertThrows(ResourceAccessException.class, () -> coalescer.execute("key",
+                () -> ResponseEntity.ok("own call")));
+        release.countDown();
+        assertEquals("late", leader.get(5, TimeUnit.SECONDS).getBody());
+    }
+
+    private List<Future<ResponseEntity<Object>>> submitWaiters(RequestCoalescer coalescer, String key,
+                                                               AtomicInteger calls) {
+        List<Future<ResponseEntity<Object>>> waiters = new ArrayList<>();
+        for (int i = 0; i < WAITERS; i++) {
+            waiters.add(executor.submit(() -> coalescer.execute(key, () -> {
+                calls.incrementAndGet();
+                return ResponseEntity.ok("own call");
+            })));
+        }
+        return waiters;
+    }
+
+    private void awaitInFlight(RequestCoalescer coalescer) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (inFlight() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(1.0, inFlight());
+    }
+
+    private void awaitCoalesced(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coalesced() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(expected, coalesced());
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("shareit.gateway.coalescing.in-flight").gauge().value();
+    }
+
+    private double coalesced() {
+        return meterRegistry.counter(RequestCoalescer.REQUESTS_METRIC, "result", "coalesced").count();
+    }
+
+    private static void assertCause(Class<? extends Throwable> expected, Future<?> future) {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(expected, e.getCause());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
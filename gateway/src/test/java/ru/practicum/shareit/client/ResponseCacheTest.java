@@ -0,0 +1,131 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponseCacheTest {
+    private MeterRegistry meterRegistry;
+    private List<String> requestedEtags;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        requestedEtags = new ArrayList<>();
+    }
+
+    @Test
+    void testFreshEntryServedWithoutUpstreamCall() {
+        ResponseCache cache = new ResponseCache(Duration.ofMinutes(1), 10, meterRegistry);
+
+        cache.fetch("a", etag -> load(etag, ok("first", "\"1\"")));
+        ResponseCache.Entry entry = cache.fetch("a", etag -> load(etag, ok("second", "\"2\"")));
+
+        assertEquals("first", entry.response().getBody());
+        assertEquals(1, requestedEtags.size());
+        assertEquals(1.0, count("hit"));
+        assertEquals(1.0, count("miss"));
+    }
+
+    @Test
+    void testStaleEntryRevalidatedWithNotModified() {
+        ResponseCache cache = new ResponseCache(Duration.ZERO, 10, meterRegistry);
+
+        cache.fetch("a", etag -> load(etag, ok("first", "\"1\"")));
+        ResponseCache.Entry entry = cache.fetch("a", etag -> load(etag,
+                ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag("\"1\"").build()));
+
+        assertEquals("first", entry.response().getBody());
+        assertEquals("\"1\"", entry.etag());
+        assertEquals(List.of("none", "\"1\""), requestedEtags);
+        assertEquals(1.0, count("revalidated"));
+    }
+
+    @Test
+    void testStaleEntryReplacedWhenChanged() {
+        ResponseCache cache = new ResponseCache(Duration.ZERO, 10, meterRegistry);
+
+        cache.fetch("a", etag -> load(etag, ok("first", "\"1\"")));
+        ResponseCache.Entry entry = cache.fetch("a", etag -> load(etag, ok("second", "\"2\"")));
+
+        assertEquals("second", entry.response().getBody());
+        assertEquals("\"2\"", entry.etag());
+        assertEquals(2.0, count("miss"));
+    }
+
+    @Test
+    void testErrorResponsesAreNotCached() {
+        ResponseCache cache = new ResponseCache(Duration.ofMinutes(1), 10, meterRegistry);
+
+        ResponseCache.Entry missing = cache.fetch("a", etag -> load(etag,
+                ResponseEntity.status(HttpStatus.NOT_FOUND).build()));
+        cache.fetch("a", etag -> load(etag, ok("found", "\"1\"")));
+
+        assertEquals(HttpStatus.NOT_FOUND, missing.response().getStatusCode());
+        assertEquals(2, requestedEtags.size());
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryEvicted() {
+        ResponseCache cache = new ResponseCache(Duration.ofMinutes(1), 2, meterRegistry);
+
+        cache.fetch("a", etag -> load(etag, ok("a", "\"a\"")));
+        cache.fetch("b", etag -> load(etag, ok("b", "\"b\"")));
+        cache.fetch("a", etag -> load(etag, ok("a2", "\"a2\"")));
+        cache.fetch("c", etag -> load(etag, ok("c", "\"c\"")));
+
+        assertEquals("a", cache.fetch("a", etag -> load(etag, ok("a3", "\"a3\""))).response().getBody());
+        assertEquals("b2", cache.fetch("b", etag -> load(etag, ok("b2", "\"b2\""))).response().getBody());
+        assertEquals(2.0, meterRegistry.get("shareit.gateway.cache.size").gauge().value());
+    }
+
+    @Test
+    void testEvictPrefixDropsMatchingEntries() {
+        ResponseCache cache = new ResponseCache(Duration.ofMinutes(1), 10, meterRegistry);
+        cache.fetch("http://server/items/7#1", etag -> load(etag, ok("seven", "\"7\"")));
+        cache.fetch("http://server/items/70#1", etag -> load(etag, ok("seventy", "\"70\"")));
+
+        cache.evictPrefix("http://server/items/7#");
+
+        assertEquals("seven again", cache.fetch("http://server/items/7#1",
+                etag -> load(etag, ok("seven again", "\"7b\""))).response().getBody());
+        assertEquals("seventy", cache.fetch("http://server/items/70#1",
+                etag -> load(etag, ok("other", "\"70b\""))).response().getBody());
+    }
+
+    @Test
+    void testMatchingIfNoneMatchAnsweredWithNotModified() {
+        ResponseCache.Entry entry = new ResponseCache.Entry(ok("body", "\"1\""), "\"1\"", 0);
+
+        ResponseEntity<Object> notModified = entry.respond("\"0\", W/\"1\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertEquals("\"1\"", notModified.getHeaders().getETag());
+        assertNull(notModified.getBody());
+        assertEquals(HttpStatus.NOT_MODIFIED, entry.respond("*").getStatusCode());
+        assertEquals("body", entry.respond("\"2\"").getBody());
+        assertEquals("body", entry.respond(null).getBody());
+    }
+
+    private ResponseEntity<Object> load(String etag, ResponseEntity<Object> response) {
+        requestedEtags.add(etag != null ? etag : "none");
+        return response;
+    }
+
+    private double count(String result) {
+        return meterRegistry.counter(ResponseCache.REQUESTS_METRIC, "result", result).count();
+    }
+
+    private static ResponseEntity<Object> ok(String body, String etag) {
+        return ResponseEntity.ok().eTag(etag).body(body);
+    }
+}
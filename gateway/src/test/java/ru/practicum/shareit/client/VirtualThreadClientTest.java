@@ -0,0 +1,137 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VirtualThreadClientTest {
+    private static final int POOL_SIZE = 20;
+    private static final int REQUESTS = 400;
+    private static final long SERVER_DELAY_MS = 50;
+
+    private final AtomicInteger serverCalls = new AtomicInteger();
+    private final AtomicInteger serverActive = new AtomicInteger();
+    private final AtomicInteger serverPeak = new AtomicInteger();
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+    private BaseClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        serverExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), REQUESTS);
+        server.setExecutor(serverExecutor);
+        server.createContext("/items", exchange -> {
+            serverCalls.incrementAndGet();
+            serverPeak.accumulateAndGet(serverActive.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(SERVER_DELAY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                serverActive.decrementAndGet();
+            }
+            byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+
+        HttpClientConfig.Http1 http1 = new HttpClientConfig.Http1();
+        connectionManager = http1.shareitServerConnectionManager(POOL_SIZE, POOL_SIZE, Duration.ofSeconds(2),
+                Duration.ofSeconds(30), Duration.ofSeconds(2), Duration.ofMinutes(5));
+        httpClient = http1.shareitServerHttpClient(connectionManager, Duration.ofSeconds(30), Duration.ofSeconds(30),
+                Duration.ofSeconds(30));
+        RestTemplate rest = new RestTemplate(http1.shareitServerRequestFactory(httpClient, POOL_SIZE, POOL_SIZE,
+                Duration.ofSeconds(30)));
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory(
+                "http://localhost:" + server.getAddress().getPort() + "/items"));
+        client = new BaseClient(rest, null, new RequestCoalescer(Duration.ZERO, Duration.ofSeconds(30),
+                new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        httpClient.close();
+        connectionManager.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void testDistinctRequestsWaitForPooledConnectionsOnVirtualThreads() throws Exception {
+        List<ResponseEntity<Object>> responses = runOnVirtualThreads(userId -> client.get("", userId));
+
+        assertTrue(responses.stream().allMatch(response -> response.getStatusCode() == HttpStatus.OK));
+        assertEquals(REQUESTS, serverCalls.get());
+        assertEquals(POOL_SIZE, serverPeak.get());
+        assertTrue(carrierThreads() < POOL_SIZE + Runtime.getRuntime().availableProcessors(),
+                "carrier threads: " + carrierThreads());
+    }
+
+    @Test
+    void testIdenticalRequestsOnVirtualThreadsAreCoalesced() throws Exception {
+        List<ResponseEntity<Object>> responses = runOnVirtualThreads(userId -> client.get("", 1L));
+
+        for (ResponseEntity<Object> response : responses) {
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals("[]", new String((byte[]) response.getBody(), StandardCharsets.UTF_8));
+        }
+        assertTrue(serverCalls.get() < REQUESTS / 10, "server calls: " + serverCalls.get());
+    }
+
+    private static long carrierThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread instanceof ForkJoinWorkerThread)
+                .filter(thread -> !thread.getName().startsWith("ForkJoinPool.commonPool"))
+                .count();
+    }
+
+    private List<ResponseEntity<Object>> runOnVirtualThreads(LongFunction<ResponseEntity<Object>> call)
+            throws Exception {
+        List<Future<ResponseEntity<Object>>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < REQUESTS; i++) {
+                long userId = i + 1;
+                futures.add(executor.submit(() -> {
+                    assertTrue(Thread.currentThread().isVirtual());
+                    return call.apply(userId);
+                }));
+            }
+        }
+        List<ResponseEntity<Object>> responses = new ArrayList<>();
+        for (Future<ResponseEntity<Object>> future : futures) {
+            responses.add(future.get(30, TimeUnit.SECONDS));
+        }
+        return responses;
+    }
+}
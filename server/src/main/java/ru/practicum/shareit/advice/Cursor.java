@@ -0,0 +1,95 @@
+package ru.practicum.shareit.advice;
+
+import jakarta.validation.ValidationException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class Cursor {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_SIZE = 10;
+
+    public static KeysetScrollPosition decode(String token, Sort sort, Class<?>... keyTypes) {
+        if (token == null || token.isEmpty()) {
+            return ScrollPosition.keyset();
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            for (String part : decoded.split(";")) {
+                String[] keyValue = part.split("=", 2);
+                keys.put(keyValue[0], parseValue(keyValue[1]));
+            }
+        } catch (RuntimeException e) {
+            throw new ValidationException("Некорректный cursor");
+        }
+
+        List<String> properties = sort.stream().map(Sort.Order::getProperty).toList();
+        if (!keys.keySet().equals(new HashSet<>(properties))) {
+            throw new ValidationException("Некорректный cursor");
+        }
+        for (int i = 0; i < properties.size(); i++) {
+            if (!keyTypes[i].isInstance(keys.get(properties.get(i)))) {
+                throw new ValidationException("Некорректный cursor");
+            }
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    public static String encode(Window<?> window) {
+        if (window.isEmpty() || !window.hasNext()) {
+            return null;
+        }
+        KeysetScrollPosition position = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+        String encoded = position.getKeys().entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + formatValue(entry.getValue()))
+                .collect(Collectors.joining(";"));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(encoded.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Limit makeLimit(Integer size) {
+        if (size == null) return Limit.of(DEFAULT_SIZE);
+        if (size <= 0) throw new ValidationException("size <= 0");
+        return Limit.of(Math.min(size, Pagination.MAX_PAGE_SIZE));
+    }
+
+    public static <T> ResponseEntity<Collection<T>> toResponse(Window<T> window) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        String nextCursor = encode(window);
+        if (nextCursor != null) {
+            response.header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return response.body(window.getContent());
+    }
+
+    private static String formatValue(Object value) {
+        if (value instanceof LocalDateTime dateTime) return "t" + dateTime;
+        if (value instanceof Long number) return "l" + number;
+        if (value instanceof Integer number) return "i" + number;
+        throw new IllegalArgumentException("Unsupported cursor key type: " + value.getClass());
+    }
+
+    private static Object parseValue(String value) {
+        String raw = value.substring(1);
+        return switch (value.charAt(0)) {
+            case 't' -> LocalDateTime.parse(raw);
+            case 'l' -> Long.parseLong(raw);
+            case 'i' -> Integer.parseInt(raw);
+            default -> throw new IllegalArgumentException("Unsupported cursor key type: " + value.charAt(0));
+        };
+    }
+}
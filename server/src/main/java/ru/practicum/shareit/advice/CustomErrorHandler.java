@@ -1,5 +1,6 @@
 package ru.practicum.shareit.advice;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.ValidationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -49,7 +50,11 @@ public class CustomErrorHandler extends ResponseEntityExceptionHandler {
     //404
     @ResponseStatus(HttpStatus.NOT_FOUND)
     @ExceptionHandler(EntityNotFoundException.class)
-    public ApiError handleEntityNotFoundException(final EntityNotFoundException e) {
+    public ApiError handleEntityNotFoundException(final EntityNotFoundException e,
+                                                  final HttpServletResponse response) {
+        if (!response.isCommitted()) {
+            response.reset();
+        }
         return new ApiError(HttpStatus.NOT_FOUND, "Обьект не найден", e.getLocalizedMessage());
     }
 
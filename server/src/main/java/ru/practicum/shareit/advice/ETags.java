@@ -0,0 +1,12 @@
+package ru.practicum.shareit.advice;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+public class ETags {
+    public static String of(Object... parts) {
+        return Arrays.stream(parts)
+                .map(String::valueOf)
+                .collect(Collectors.joining("-", "\"", "\""));
+    }
+}
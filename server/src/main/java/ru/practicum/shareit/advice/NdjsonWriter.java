@@ -0,0 +1,41 @@
+package ru.practicum.shareit.advice;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Component
+@AllArgsConstructor
+public class NdjsonWriter {
+    private static final int FLUSH_EVERY = 500;
+
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    public <E, D> void writeEntities(Stream<E> entities, Function<E, D> mapper, OutputStream out)
+            throws IOException {
+        Iterator<E> iterator = entities.iterator();
+        int written = 0;
+        while (iterator.hasNext()) {
+            E entity = iterator.next();
+            write(mapper.apply(entity), out);
+            entityManager.detach(entity);
+            if (++written % FLUSH_EVERY == 0) {
+                out.flush();
+            }
+        }
+        out.flush();
+    }
+
+    public void write(Object value, OutputStream out) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(value));
+        out.write('\n');
+    }
+}
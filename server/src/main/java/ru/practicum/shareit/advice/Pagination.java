@@ -2,12 +2,26 @@ package ru.practicum.shareit.advice;
 
 import jakarta.validation.ValidationException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import static org.springframework.data.domain.PageRequest.*;
 
 public class Pagination {
+    public static final int MAX_PAGE_SIZE = 10_000;
+
     public static PageRequest makePageRequest(Integer from, Integer size) {
         if (size == null || from == null) return null;
         if (size <= 0 || from < 0) throw new ValidationException("size <= 0 || from < 0");
+        size = Math.min(size, MAX_PAGE_SIZE);
         return of(from / size, size);
     }
+
+    public static PageRequest makePageRequestOrFirst(Integer from, Integer size) {
+        PageRequest pageRequest = makePageRequest(from, size);
+        return pageRequest != null ? pageRequest : of(0, MAX_PAGE_SIZE);
+    }
+
+    public static Pageable makePageable(Integer from, Integer size, Sort sort) {
+        return makePageRequestOrFirst(from, size).withSort(sort);
+    }
 }
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.advice;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ValidationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Window;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.function.BiFunction;
+
+@Component
+public class ResultSizeGovernor {
+    public static final String CAPPED_METRIC = "shareit.pagination.capped";
+    private static final String MAX_SIZE_PROPERTY = "shareit.pagination.max-size";
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final int defaultMaxSize;
+
+    public ResultSizeGovernor(Environment environment, MeterRegistry meterRegistry,
+                              @Value("${" + MAX_SIZE_PROPERTY + ":1000}") int defaultMaxSize) {
+        if (defaultMaxSize <= 0) {
+            throw new IllegalArgumentException(MAX_SIZE_PROPERTY + " must be positive");
+        }
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.defaultMaxSize = Math.min(defaultMaxSize, Pagination.MAX_PAGE_SIZE);
+    }
+
+    public int maxSize(String endpoint) {
+        int maxSize = environment.getProperty(MAX_SIZE_PROPERTY + "." + endpoint, Integer.class, defaultMaxSize);
+        return Math.max(1, Math.min(maxSize, Pagination.MAX_PAGE_SIZE));
+    }
+
+    public <T> ResponseEntity<Collection<T>> respond(String endpoint, Integer from, Integer size, String cursor,
+                                                     BiFunction<String, Integer, Window<T>> scroll,
+                                                     BiFunction<Integer, Integer, Collection<T>> page) {
+        int maxSize = maxSize(endpoint);
+        if (size != null && size <= 0) {
+            throw new ValidationException("size <= 0");
+        }
+        if (size != null && size > maxSize) {
+            counter(endpoint, "oversized").increment();
+            size = maxSize;
+        }
+
+        if (cursor != null) {
+            return Cursor.toResponse(scroll.apply(cursor, size != null ? size : maxSize));
+        }
+        if (from == null || size == null) {
+            Window<T> window = scroll.apply(null, size != null ? size : maxSize);
+            if (size == null && window.hasNext()) {
+                counter(endpoint, "unbounded").increment();
+            }
+            return Cursor.toResponse(window);
+        }
+        return ResponseEntity.ok(page.apply(from, size));
+    }
+
+    private Counter counter(String endpoint, String reason) {
+        return meterRegistry.counter(CAPPED_METRIC, "endpoint", endpoint, "reason", reason);
+    }
+}
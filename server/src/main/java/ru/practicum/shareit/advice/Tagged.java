@@ -0,0 +1,4 @@
+package ru.practicum.shareit.advice;
+
+public record Tagged<T>(T body, String etag) {
+}
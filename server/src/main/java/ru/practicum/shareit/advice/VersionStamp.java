@@ -0,0 +1,17 @@
+package ru.practicum.shareit.advice;
+
+import java.util.Collection;
+import java.util.function.ToLongFunction;
+
+public record VersionStamp(long count, long maxId, long versionSum) {
+    public static <T> VersionStamp of(Collection<T> rows, ToLongFunction<T> id, ToLongFunction<T> version) {
+        return new VersionStamp(rows.size(),
+                rows.stream().mapToLong(id).max().orElse(0L),
+                rows.stream().mapToLong(version).sum());
+    }
+
+    @Override
+    public String toString() {
+        return count + "." + maxId + "." + versionSum;
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.advice.enums;
+
+public enum SlotStatus {
+    FREE,
+    WAITING,
+    BOOKED
+}
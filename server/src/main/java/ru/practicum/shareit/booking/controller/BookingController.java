@@ -1,19 +1,27 @@
 package ru.practicum.shareit.booking.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.advice.ResultSizeGovernor;
 import ru.practicum.shareit.advice.enums.BookingState;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
 
+import java.io.IOException;
 import java.util.Collection;
+import java.util.List;
 
 @RestController
 @AllArgsConstructor
 @RequestMapping(path = "/bookings")
 public class BookingController {
     private final BookingService bookingService;
+    private final ResultSizeGovernor resultSizeGovernor;
 
     @PostMapping
     public BookingDto create(@RequestBody BookingCreateDto bookingCreateDto,
@@ -21,6 +29,12 @@ public class BookingController {
         return bookingService.create(userId, bookingCreateDto);
     }
 
+    @PostMapping("/batch")
+    public Collection<BookingDto> createAll(@RequestBody List<BookingCreateDto> bookingCreateDtos,
+                                            @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingService.createAll(userId, bookingCreateDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto update(@RequestHeader("X-Sharer-User-Id") Long userId,
                              @PathVariable("bookingId") Long bookingId,
@@ -28,27 +42,51 @@ public class BookingController {
         return bookingService.update(userId, bookingId, approved);
     }
 
+    @GetMapping("/export")
+    public void exportUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                   HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        bookingService.exportUserBookings(userId, response.getOutputStream());
+    }
+
+    @GetMapping("/owner/export")
+    public void exportOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                    HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        bookingService.exportOwnerBookings(userId, response.getOutputStream());
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto get(@RequestHeader("X-Sharer-User-Id") Long userId,
-                          @PathVariable("bookingId") Long bookingId) {
+                          @PathVariable("bookingId") Long bookingId,
+                          WebRequest request) {
+        if (request.checkNotModified(bookingService.findTag(userId, bookingId))) {
+            return null;
+        }
         return bookingService.find(userId, bookingId);
     }
 
     @GetMapping
-    public Collection<BookingDto> getAllUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                     @RequestParam(name = "state", required = false,
-                                                             defaultValue = "ALL") BookingState state,
-                                                     @RequestParam(required = false) Integer from,
-                                                     @RequestParam(required = false) Integer size) {
-        return bookingService.findAllUserBookings(userId, state, from, size);
+    public ResponseEntity<Collection<BookingDto>> getAllUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                     @RequestParam(name = "state", required = false,
+                                                                             defaultValue = "ALL") BookingState state,
+                                                                     @RequestParam(required = false) Integer from,
+                                                                     @RequestParam(required = false) Integer size,
+                                                                     @RequestParam(required = false) String cursor) {
+        return resultSizeGovernor.respond("bookings", from, size, cursor,
+                (next, limit) -> bookingService.scrollUserBookings(userId, state, next, limit),
+                (offset, limit) -> bookingService.findAllUserBookings(userId, state, offset, limit));
     }
 
     @GetMapping("/owner")
-    public Collection<BookingDto> getAllOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                      @RequestParam(name = "state", required = false,
-                                                              defaultValue = "ALL") BookingState state,
-                                                      @RequestParam(required = false) Integer from,
-                                                      @RequestParam(required = false) Integer size) {
-        return bookingService.findAllOwnerBookings(userId, state, from, size);
+    public ResponseEntity<Collection<BookingDto>> getAllOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                      @RequestParam(name = "state", required = false,
+                                                                              defaultValue = "ALL") BookingState state,
+                                                                      @RequestParam(required = false) Integer from,
+                                                                      @RequestParam(required = false) Integer size,
+                                                                      @RequestParam(required = false) String cursor) {
+        return resultSizeGovernor.respond("bookings-owner", from, size, cursor,
+                (next, limit) -> bookingService.scrollOwnerBookings(userId, state, next, limit),
+                (offset, limit) -> bookingService.findAllOwnerBookings(userId, state, offset, limit));
     }
 }
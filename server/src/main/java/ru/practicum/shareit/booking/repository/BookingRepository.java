@@ -1,18 +1,26 @@
 package ru.practicum.shareit.booking.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.advice.enums.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
@@ -20,11 +28,42 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @EntityGraph(attributePaths = {"item", "item.owner"})
     Optional<Booking> findBookingWithGraphById(Long bookingId);
 
+    @Query("SELECT b.item.id FROM Booking b WHERE b.id = :bookingId")
+    Optional<Long> findItemIdById(@Param("bookingId") Long bookingId);
+
     @EntityGraph(attributePaths = {"item", "item.owner"})
     Page<Booking> findAllByBooker_Id(Long bookerId, Pageable pageable);
 
-    @EntityGraph(attributePaths = {"item", "item.owner"})
-    Collection<Booking> findAllByItem_Id(Long itemId);
+    @EntityGraph(attributePaths = {"item"})
+    Optional<Booking> findFirstByItem_IdAndStatusAndEndTimeBeforeOrderByEndTimeDesc(Long itemId,
+                                                                                  BookingStatus bookingStatus,
+                                                                                  LocalDateTime endBefore);
+
+    @EntityGraph(attributePaths = {"item"})
+    Optional<Booking> findFirstByItem_IdAndStatusAndStartAfterOrderByStartAsc(Long itemId,
+                                                                            BookingStatus bookingStatus,
+                                                                            LocalDateTime startAfter);
+
+    @EntityGraph(attributePaths = {"item"})
+    @Query("""
+            SELECT b
+            FROM Booking b
+            WHERE b.item.id IN :ids
+            AND b.status = :status
+            AND (b.endTime = (SELECT MAX(lb.endTime)
+                              FROM Booking lb
+                              WHERE lb.item.id = b.item.id
+                              AND lb.status = :status
+                              AND lb.endTime < :now)
+            OR b.start = (SELECT MIN(nb.start)
+                          FROM Booking nb
+                          WHERE nb.item.id = b.item.id
+                          AND nb.status = :status
+                          AND nb.start > :now))
+            """)
+    Collection<Booking> findLastAndNextBookings(@Param("ids") Collection<Long> itemIds,
+                                                @Param("status") BookingStatus bookingStatus,
+                                                @Param("now") LocalDateTime now);
 
     @EntityGraph(attributePaths = {"item", "item.owner"})
     Page<Booking> findAllByBooker_IdAndStatusAndStartBeforeAndEndTimeAfter(Long bookerId,
@@ -71,26 +110,80 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
                                                   Pageable pageable);
 
     @EntityGraph(attributePaths = {"item", "item.owner"})
-    Optional<Booking> findByBooker_IdAndItem_IdAndStatusAndEndTimeBefore(Long bookerId, Long itemId, BookingStatus status,
-                                                                     LocalDateTime endBefore);
+    Window<Booking> findAllByBooker_Id(Long bookerId,
+                                       ScrollPosition position, Sort sort, Limit limit);
 
-    @Query("""
-            SELECT COUNT(b) > 0
-            FROM Booking b
-            WHERE b.item.id = :id
-            AND b.status = :status
-            AND b.endTime >= :start
-            AND b.start <= :end
-            """)
-    boolean hasOverlappingBooking(@Param("id") Long itemId,
-                                  @Param("status") BookingStatus bookingStatus,
-                                  @Param("start") LocalDateTime start,
-                                  @Param("end") LocalDateTime end);
-}
+    @EntityGraph(attributePaths = {"item", "item.owner"})
+    Window<Booking> findAllByBooker_IdAndStatusAndStartBeforeAndEndTimeAfter(Long bookerId,
+                                                                             BookingStatus bookingStatus,
+                                                                             LocalDateTime startBefore,
+                                                                             LocalDateTime endAfter,
+                                                                             ScrollPosition position,
+                                                                             Sort sort,
+                                                                             Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "item.owner"})
+    Window<Booking> findAllByBooker_IdAndStatusAndEndTimeBefore(Long bookerId, BookingStatus bookingStatus,
+                                                                LocalDateTime endBefore,
+                                                                ScrollPosition position, Sort sort, Limit limit);
 
+    @EntityGraph(attributePaths = {"item", "item.owner"})
+    Window<Booking> findAllByBooker_IdAndStatusAndStartAfter(Long bookerId, BookingStatus bookingStatus,
+                                                             LocalDateTime startAfter,
+                                                             ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "item.owner"})
+    Window<Booking> findAllByBooker_IdAndStatus(Long bookerId, BookingStatus bookingStatus,
+                                                ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "item.owner"})
+    Window<Booking> findAllByItem_Owner_Id(Long ownerId,
+                                           ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "item.owner"})
+    Window<Booking> findAllByItem_Owner_IdAndStatusAndStartBeforeAndEndTimeAfter(Long ownerId,
+                                                                                 BookingStatus bookingStatus,
+                                                                                 LocalDateTime startBefore,
+                                                                                 LocalDateTime endAfter,
+                                                                                 ScrollPosition position,
+                                                                                 Sort sort,
+                                                                                 Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "item.owner"})
+    Window<Booking> findAllByItem_Owner_IdAndStatusAndEndTimeBefore(Long ownerId, BookingStatus bookingStatus,
+                                                                    LocalDateTime endBefore,
+                                                                    ScrollPosition position, Sort sort, Limit limit);
 
+    @EntityGraph(attributePaths = {"item", "item.owner"})
+    Window<Booking> findAllByItem_Owner_IdAndStatusAndStartAfter(Long ownerId, BookingStatus bookingStatus,
+                                                                 LocalDateTime startAfter,
+                                                                 ScrollPosition position, Sort sort, Limit limit);
 
+    @EntityGraph(attributePaths = {"item", "item.owner"})
+    Window<Booking> findAllByItem_Owner_IdAndStatus(Long ownerId, BookingStatus bookingStatus,
+                                                    ScrollPosition position, Sort sort, Limit limit);
 
+    @EntityGraph(attributePaths = {"item", "item.owner"})
+    Optional<Booking> findByBooker_IdAndItem_IdAndStatusAndEndTimeBefore(Long bookerId, Long itemId, BookingStatus status,
+                                                                     LocalDateTime endBefore);
+
+    Collection<Booking> findAllByItem_IdAndStatusAndEndTimeGreaterThanEqual(Long itemId, BookingStatus status,
+                                                                            LocalDateTime endFrom);
 
+    Collection<Booking> findAllByItem_IdInAndStatusAndEndTimeGreaterThanEqual(Collection<Long> itemIds,
+                                                                              BookingStatus status,
+                                                                              LocalDateTime endFrom);
 
+    Collection<Booking> findAllByItem_IdAndStatusInAndEndTimeAfterAndStartBefore(Long itemId,
+                                                                                Collection<BookingStatus> statuses,
+                                                                                LocalDateTime from,
+                                                                                LocalDateTime to);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @EntityGraph(attributePaths = {"item"})
+    Stream<Booking> streamAllByBooker_IdOrderByStartDescIdDesc(Long bookerId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @EntityGraph(attributePaths = {"item"})
+    Stream<Booking> streamAllByItem_Owner_IdOrderByStartDescIdDesc(Long ownerId);
+}
@@ -0,0 +1,219 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.advice.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+@Component
+public class BookingAvailabilityCache {
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+
+    private final BookingRepository bookingRepository;
+    private final BookingLocks bookingLocks;
+    private final Map<Long, ApprovedIntervals> intervalsByItem;
+
+    public BookingAvailabilityCache(BookingRepository bookingRepository, BookingLocks bookingLocks,
+                                    @Value("${shareit.booking.availability-cache-size:10000}") int maxItems) {
+        this.bookingRepository = bookingRepository;
+        this.bookingLocks = bookingLocks;
+        this.intervalsByItem = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ApprovedIntervals> eldest) {
+                return size() > maxItems;
+            }
+        };
+    }
+
+    public boolean hasOverlap(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return intervals(itemId).overlaps(toMicros(start), toMicros(end));
+    }
+
+    public LocalDateTime findNextFreeSlot(Long itemId, LocalDateTime from, Duration duration) {
+        long length = duration.toNanos() / 1000;
+        return fromMicros(intervals(itemId).nextFreeStart(toMicros(from), length));
+    }
+
+    public void preload(Collection<Long> itemIds) {
+        List<Long> missing;
+        synchronized (intervalsByItem) {
+            missing = itemIds.stream()
+                    .distinct()
+                    .filter(itemId -> !intervalsByItem.containsKey(itemId))
+                    .toList();
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        bookingLocks.withItemLocks(missing, () -> {
+            Map<Long, List<Booking>> bookingsByItem = bookingRepository
+                    .findAllByItem_IdInAndStatusAndEndTimeGreaterThanEqual(missing, BookingStatus.APPROVED,
+                            LocalDateTime.now()).stream()
+                    .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+            synchronized (intervalsByItem) {
+                missing.forEach(itemId -> intervalsByItem.putIfAbsent(itemId,
+                        ApprovedIntervals.of(bookingsByItem.getOrDefault(itemId, List.of()))));
+            }
+            return null;
+        });
+    }
+
+    public void approved(Booking booking) {
+        update(booking.getItem().getId(), intervals -> intervals.with(toMicros(booking.getStart()),
+                toMicros(booking.getEndTime())));
+    }
+
+    public void unapproved(Booking booking) {
+        update(booking.getItem().getId(), intervals -> intervals.without(toMicros(booking.getStart()),
+                toMicros(booking.getEndTime())));
+    }
+
+    public void evict(Long itemId) {
+        synchronized (intervalsByItem) {
+            intervalsByItem.remove(itemId);
+        }
+    }
+
+    private ApprovedIntervals intervals(Long itemId) {
+        synchronized (intervalsByItem) {
+            ApprovedIntervals cached = intervalsByItem.get(itemId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        return bookingLocks.withItemLock(itemId, () -> {
+            ApprovedIntervals loaded = ApprovedIntervals.of(bookingRepository
+                    .findAllByItem_IdAndStatusAndEndTimeGreaterThanEqual(itemId, BookingStatus.APPROVED,
+                            LocalDateTime.now()));
+            synchronized (intervalsByItem) {
+                ApprovedIntervals cached = intervalsByItem.putIfAbsent(itemId, loaded);
+                return cached != null ? cached : loaded;
+            }
+        });
+    }
+
+    private void update(Long itemId, UnaryOperator<ApprovedIntervals> change) {
+        synchronized (intervalsByItem) {
+            intervalsByItem.computeIfPresent(itemId, (id, intervals) -> change.apply(intervals));
+        }
+    }
+
+    private static long toMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * MICROS_PER_SECOND + dateTime.getNano() / 1000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, MICROS_PER_SECOND),
+                (int) Math.floorMod(micros, MICROS_PER_SECOND) * 1000, ZoneOffset.UTC);
+    }
+
+    private record ApprovedIntervals(long[] starts, long[] ends, long[] maxEnds) {
+        static ApprovedIntervals of(Collection<Booking> bookings) {
+            long[][] intervals = bookings.stream()
+                    .map(booking -> new long[]{toMicros(booking.getStart()), toMicros(booking.getEndTime())})
+                    .sorted((left, right) -> Long.compare(left[0], right[0]))
+                    .toArray(long[][]::new);
+            long[] starts = new long[intervals.length];
+            long[] ends = new long[intervals.length];
+            for (int i = 0; i < intervals.length; i++) {
+                starts[i] = intervals[i][0];
+                ends[i] = intervals[i][1];
+            }
+            return of(starts, ends);
+        }
+
+        static ApprovedIntervals of(long[] starts, long[] ends) {
+            long[] maxEnds = new long[ends.length];
+            for (int i = 0; i < ends.length; i++) {
+                maxEnds[i] = i == 0 ? ends[i] : Math.max(maxEnds[i - 1], ends[i]);
+            }
+            return new ApprovedIntervals(starts, ends, maxEnds);
+        }
+
+        boolean overlaps(long start, long end) {
+            int last = lastStartingAtOrBefore(end);
+            return last >= 0 && maxEnds[last] >= start;
+        }
+
+        long nextFreeStart(long from, long length) {
+            long candidate = from;
+            for (int i = firstEndingAtOrAfter(from); i < starts.length; i++) {
+                if (ends[i] < candidate) {
+                    continue;
+                }
+                if (candidate + length < starts[i]) {
+                    return candidate;
+                }
+                candidate = Math.max(candidate, ends[i] + 1);
+            }
+            return candidate;
+        }
+
+        ApprovedIntervals with(long start, long end) {
+            int index = lastStartingAtOrBefore(start) + 1;
+            long[] newStarts = new long[starts.length + 1];
+            long[] newEnds = new long[ends.length + 1];
+            System.arraycopy(starts, 0, newStarts, 0, index);
+            System.arraycopy(ends, 0, newEnds, 0, index);
+            newStarts[index] = start;
+            newEnds[index] = end;
+            System.arraycopy(starts, index, newStarts, index + 1, starts.length - index);
+            System.arraycopy(ends, index, newEnds, index + 1, ends.length - index);
+            return of(newStarts, newEnds);
+        }
+
+        ApprovedIntervals without(long start, long end) {
+            for (int i = 0; i < starts.length; i++) {
+                if (starts[i] == start && ends[i] == end) {
+                    long[] newStarts = new long[starts.length - 1];
+                    long[] newEnds = new long[ends.length - 1];
+                    System.arraycopy(starts, 0, newStarts, 0, i);
+                    System.arraycopy(ends, 0, newEnds, 0, i);
+                    System.arraycopy(starts, i + 1, newStarts, i, starts.length - i - 1);
+                    System.arraycopy(ends, i + 1, newEnds, i, ends.length - i - 1);
+                    return of(newStarts, newEnds);
+                }
+            }
+            return this;
+        }
+
+        private int lastStartingAtOrBefore(long time) {
+            int index = Arrays.binarySearch(starts, time);
+            if (index < 0) {
+                return -index - 2;
+            }
+            while (index + 1 < starts.length && starts[index + 1] == time) {
+                index++;
+            }
+            return index;
+        }
+
+        private int firstEndingAtOrAfter(long time) {
+            int low = 0;
+            int high = maxEnds.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (maxEnds[middle] < time) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -1,11 +1,22 @@
 package ru.practicum.shareit.booking.service;
 
-import lombok.AllArgsConstructor;
+import jakarta.validation.ValidationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.advice.Cursor;
+import ru.practicum.shareit.advice.ETags;
+import ru.practicum.shareit.advice.NdjsonWriter;
 import ru.practicum.shareit.advice.Pagination;
 import ru.practicum.shareit.advice.enums.BookingState;
 import ru.practicum.shareit.advice.enums.BookingStatus;
@@ -19,23 +30,51 @@ import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceIndex;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
-@AllArgsConstructor
 public class BookingService {
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "start", "id");
+
     private final BookingRepository bookingRepository;
-    private final UserRepository userRepository;
+    private final UserExistenceIndex userExistenceIndex;
     private final ItemRepository itemRepository;
+    private final BookingLocks bookingLocks;
+    private final BookingAvailabilityCache availabilityCache;
+    private final NdjsonWriter ndjsonWriter;
+    private final int maxBatchSize;
+
+    public BookingService(BookingRepository bookingRepository,
+                          UserExistenceIndex userExistenceIndex,
+                          ItemRepository itemRepository,
+                          BookingLocks bookingLocks,
+                          BookingAvailabilityCache availabilityCache,
+                          NdjsonWriter ndjsonWriter,
+                          @Value("${shareit.booking.batch-max-size:1000}") int maxBatchSize) {
+        this.bookingRepository = bookingRepository;
+        this.userExistenceIndex = userExistenceIndex;
+        this.itemRepository = itemRepository;
+        this.bookingLocks = bookingLocks;
+        this.availabilityCache = availabilityCache;
+        this.ndjsonWriter = ndjsonWriter;
+        this.maxBatchSize = maxBatchSize;
+    }
 
     public BookingDto create(Long userId, BookingCreateDto bookingCreateDto) {
-        userRepository.findById(userId).orElseThrow(() ->
-                new EntityNotFoundException("Пользователь", userId));
+        userExistenceIndex.check(userId);
         Item item = itemRepository.findById(bookingCreateDto.getItemId()).orElseThrow(() ->
                 new EntityNotFoundException("Предмет", bookingCreateDto.getItemId()));
         if (!item.getAvailable()) {
@@ -43,36 +82,123 @@ public class BookingService {
                     item.getId()));
         }
 
-        LocalDateTime startBooking = bookingCreateDto.getStart();
-        LocalDateTime endBooking = bookingCreateDto.getEnd();
-
-        if (item.getOwner().getId().equals(userId) ||
-                bookingRepository.hasOverlappingBooking(bookingCreateDto.getItemId(),
-                BookingStatus.APPROVED,
-                startBooking,
-                endBooking)) {
+        if (item.getOwner().getId().equals(userId)) {
             throw new ItemUnavailableException(String.format("Предмет с ID_%d недоступен для бронирования",
                     item.getId()));
         }
 
-        return BookingMapper.toBookingDto(bookingRepository.save(BookingMapper.toBooking(bookingCreateDto, userId,
-                item.getName())), userId);
+        return bookingLocks.withItemLock(item.getId(), () -> {
+            checkNoOverlap(item.getId(), bookingCreateDto.getStart(), bookingCreateDto.getEnd());
+            return BookingMapper.toBookingDto(bookingRepository.save(BookingMapper.toBooking(bookingCreateDto,
+                    userId, item.getName())), userId);
+        });
+    }
+
+    public Collection<BookingDto> createAll(Long userId, List<BookingCreateDto> bookingCreateDtos) {
+        if (bookingCreateDtos.isEmpty() || bookingCreateDtos.size() > maxBatchSize) {
+            throw new ValidationException("Количество бронирований в пакете должно быть от 1 до " + maxBatchSize);
+        }
+        userExistenceIndex.check(userId);
+
+        Set<Long> itemIds = bookingCreateDtos.stream()
+                .map(BookingCreateDto::getItemId)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        for (Long itemId : itemIds) {
+            Item item = items.get(itemId);
+            if (item == null) {
+                throw new EntityNotFoundException("Предмет", itemId);
+            }
+            if (!item.getAvailable() || item.getOwner().getId().equals(userId)) {
+                throw new ItemUnavailableException(String.format("Предмет с ID_%d недоступен для бронирования",
+                        itemId));
+            }
+        }
+
+        return bookingLocks.withItemLocks(itemIds, () -> {
+            availabilityCache.preload(itemIds);
+            bookingCreateDtos.forEach(booking -> checkNoOverlap(booking.getItemId(), booking.getStart(),
+                    booking.getEnd()));
+            List<Booking> bookings = bookingCreateDtos.stream()
+                    .map(booking -> BookingMapper.toBooking(booking, userId,
+                            items.get(booking.getItemId()).getName()))
+                    .toList();
+            return bookingRepository.saveAll(bookings).stream()
+                    .map(booking -> BookingMapper.toBookingDto(booking, userId))
+                    .toList();
+        });
     }
 
     public BookingDto update(Long userId, Long bookingId, boolean approve) {
-        Booking bookingUpdate = bookingRepository.findBookingWithGraphById(bookingId).orElseThrow(() ->
+        Long itemId = bookingRepository.findItemIdById(bookingId).orElseThrow(() ->
                 new EntityNotFoundException("Бронирование", bookingId));
 
-        if (!bookingUpdate.getItem().getOwner().getId().equals(userId)) {
-            throw new AccessDeniedException("Подтвердить или отменить бронирование может только владелец вещи");
+        return bookingLocks.withItemLock(itemId, () -> {
+            Booking bookingUpdate = bookingRepository.findBookingWithGraphById(bookingId).orElseThrow(() ->
+                    new EntityNotFoundException("Бронирование", bookingId));
+
+            if (!bookingUpdate.getItem().getOwner().getId().equals(userId)) {
+                throw new AccessDeniedException("Подтвердить или отменить бронирование может только владелец вещи");
+            }
+
+            boolean wasApproved = bookingUpdate.getStatus() == BookingStatus.APPROVED;
+            if (!approve) {
+                bookingUpdate.setStatus(BookingStatus.REJECTED);
+                saveStatus(bookingUpdate);
+                if (wasApproved) {
+                    availabilityCache.unapproved(bookingUpdate);
+                }
+                return BookingMapper.toBookingDto(bookingUpdate, bookingUpdate.getBooker().getId());
+            }
+
+            if (!wasApproved) {
+                checkNoOverlap(itemId, bookingUpdate.getStart(), bookingUpdate.getEndTime());
+            }
+            bookingUpdate.setStatus(BookingStatus.APPROVED);
+            try {
+                saveStatus(bookingUpdate);
+            } catch (DataIntegrityViolationException e) {
+                availabilityCache.evict(itemId);
+                throw new ItemUnavailableException(String.format("Предмет с ID_%d уже забронирован на эти даты",
+                        itemId));
+            }
+            if (!wasApproved) {
+                availabilityCache.approved(bookingUpdate);
+            }
+            return BookingMapper.toBookingDto(bookingUpdate, bookingUpdate.getBooker().getId());
+        });
+    }
+
+    private void saveStatus(Booking booking) {
+        try {
+            bookingRepository.save(booking);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            availabilityCache.evict(booking.getItem().getId());
+            throw new ItemUnavailableException(String.format("Бронирование с ID_%d было изменено параллельно, " +
+                    "повторите запрос", booking.getId()));
         }
+    }
 
-        bookingUpdate.setStatus(approve ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+    private void checkNoOverlap(Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (availabilityCache.hasOverlap(itemId, start, end)) {
+            LocalDateTime nextFree = availabilityCache.findNextFreeSlot(itemId, start, Duration.between(start, end));
+            throw new ItemUnavailableException(String.format("Предмет с ID_%d недоступен для бронирования " +
+                    "на эти даты, ближайшее свободное начало: %s", itemId, nextFree));
+        }
+    }
 
-        return BookingMapper.toBookingDto(bookingRepository.save(bookingUpdate), bookingUpdate.getBooker().getId());
+    public String findTag(Long userId, Long bookingId) {
+        Booking booking = findVisible(userId, bookingId);
+        return ETags.of(booking.getVersion(), booking.getItem().getVersion());
     }
 
     public BookingDto find(Long userId, Long bookingId) {
+        Booking booking = findVisible(userId, bookingId);
+        return BookingMapper.toBookingDto(booking, booking.getBooker().getId());
+    }
+
+    private Booking findVisible(Long userId, Long bookingId) {
         Booking booking = bookingRepository.findBookingWithGraphById(bookingId).orElseThrow(() ->
                 new EntityNotFoundException("Бронирование", bookingId));
 
@@ -80,14 +206,13 @@ public class BookingService {
             throw new AccessDeniedException("Просмотреть бронирование может " +
                     " только владелец вещи либо автор бронирования");
         }
-
-        return BookingMapper.toBookingDto(booking, booking.getBooker().getId());
+        return booking;
     }
 
     public Collection<BookingDto> findAllUserBookings(Long userId, BookingState state,
                                                       Integer from, Integer size) {
         LocalDateTime now = LocalDateTime.now();
-        PageRequest pageRequest = Pagination.makePageRequest(from, size);
+        Pageable pageRequest = Pagination.makePageable(from, size, NEWEST_FIRST);
         Page<Booking> bookings;
 
         switch (state) {
@@ -111,17 +236,31 @@ public class BookingService {
 
         return bookings.stream()
                 .map(booking -> BookingMapper.toBookingDto(booking, userId))
-                .sorted(Comparator.comparing(BookingDto::getStart).reversed())
                 .toList();
     }
 
+    @Transactional(readOnly = true)
+    public void exportUserBookings(Long userId, OutputStream out) throws IOException {
+        try (Stream<Booking> bookings = bookingRepository.streamAllByBooker_IdOrderByStartDescIdDesc(userId)) {
+            ndjsonWriter.writeEntities(bookings, booking -> BookingMapper.toBookingDto(booking, userId), out);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportOwnerBookings(Long userId, OutputStream out) throws IOException {
+        userExistenceIndex.check(userId);
+        try (Stream<Booking> bookings = bookingRepository.streamAllByItem_Owner_IdOrderByStartDescIdDesc(userId)) {
+            ndjsonWriter.writeEntities(bookings,
+                    booking -> BookingMapper.toBookingDto(booking, booking.getBooker().getId()), out);
+        }
+    }
+
     public Collection<BookingDto> findAllOwnerBookings(Long userId, BookingState state,
                                                        Integer from, Integer size) {
-        userRepository.findById(userId).orElseThrow(() ->
-                new EntityNotFoundException("Пользователь", userId));
+        userExistenceIndex.check(userId);
 
         LocalDateTime now = LocalDateTime.now();
-        PageRequest pageRequest = Pagination.makePageRequest(from, size);
+        Pageable pageRequest = Pagination.makePageable(from, size, NEWEST_FIRST);
         Page<Booking> bookings;
 
         switch (state) {
@@ -146,7 +285,65 @@ public class BookingService {
 
         return bookings.stream()
                 .map(booking -> BookingMapper.toBookingDto(booking, userId))
-                .sorted(Comparator.comparing(BookingDto::getStart).reversed())
                 .toList();
     }
+
+    public Window<BookingDto> scrollUserBookings(Long userId, BookingState state, String cursor, Integer size) {
+        LocalDateTime now = LocalDateTime.now();
+        KeysetScrollPosition position = Cursor.decode(cursor, NEWEST_FIRST, LocalDateTime.class, Long.class);
+        Limit limit = Cursor.makeLimit(size);
+        Window<Booking> bookings;
+
+        switch (state) {
+            case ALL -> bookings = bookingRepository.findAllByBooker_Id(userId, position, NEWEST_FIRST, limit);
+            case CURRENT ->
+                    bookings = bookingRepository.findAllByBooker_IdAndStatusAndStartBeforeAndEndTimeAfter(userId,
+                            BookingStatus.APPROVED,
+                            now, now, position, NEWEST_FIRST, limit);
+            case PAST -> bookings = bookingRepository.findAllByBooker_IdAndStatusAndEndTimeBefore(userId,
+                    BookingStatus.APPROVED,
+                    now, position, NEWEST_FIRST, limit);
+            case FUTURE -> bookings = bookingRepository.findAllByBooker_IdAndStatusAndStartAfter(userId,
+                    BookingStatus.APPROVED,
+                    now, position, NEWEST_FIRST, limit);
+            case WAITING -> bookings = bookingRepository.findAllByBooker_IdAndStatus(userId, BookingStatus.WAITING,
+                    position, NEWEST_FIRST, limit);
+            case REJECTED -> bookings = bookingRepository.findAllByBooker_IdAndStatus(userId, BookingStatus.REJECTED,
+                    position, NEWEST_FIRST, limit);
+            default -> bookings = Window.from(Collections.emptyList(), ScrollPosition::offset);
+        }
+
+        return bookings.map(booking -> BookingMapper.toBookingDto(booking, userId));
+    }
+
+    public Window<BookingDto> scrollOwnerBookings(Long userId, BookingState state, String cursor, Integer size) {
+        userExistenceIndex.check(userId);
+
+        LocalDateTime now = LocalDateTime.now();
+        KeysetScrollPosition position = Cursor.decode(cursor, NEWEST_FIRST, LocalDateTime.class, Long.class);
+        Limit limit = Cursor.makeLimit(size);
+        Window<Booking> bookings;
+
+        switch (state) {
+            case ALL -> bookings = bookingRepository.findAllByItem_Owner_Id(userId, position, NEWEST_FIRST, limit);
+            case CURRENT ->
+                    bookings = bookingRepository.findAllByItem_Owner_IdAndStatusAndStartBeforeAndEndTimeAfter(userId,
+                            BookingStatus.APPROVED,
+                            now, now, position, NEWEST_FIRST, limit);
+            case PAST -> bookings = bookingRepository.findAllByItem_Owner_IdAndStatusAndEndTimeBefore(userId,
+                    BookingStatus.APPROVED,
+                    now, position, NEWEST_FIRST, limit);
+            case FUTURE -> bookings = bookingRepository.findAllByItem_Owner_IdAndStatusAndStartAfter(userId,
+                    BookingStatus.APPROVED,
+                    now, position, NEWEST_FIRST, limit);
+            case WAITING -> bookings = bookingRepository.findAllByItem_Owner_IdAndStatus(userId, BookingStatus.WAITING,
+                    position, NEWEST_FIRST, limit);
+            case REJECTED ->
+                    bookings = bookingRepository.findAllByItem_Owner_IdAndStatus(userId, BookingStatus.REJECTED,
+                            position, NEWEST_FIRST, limit);
+            default -> bookings = Window.from(Collections.emptyList(), ScrollPosition::offset);
+        }
+
+        return bookings.map(booking -> BookingMapper.toBookingDto(booking, userId));
+    }
 }
@@ -1,12 +1,25 @@
 package ru.practicum.shareit.item.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.advice.ResultSizeGovernor;
+import ru.practicum.shareit.advice.Tagged;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemAllFieldsDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.service.ItemImportService;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.Collection;
 
 @RestController
@@ -14,12 +27,31 @@ import java.util.Collection;
 @RequestMapping("/items")
 public class ItemController {
     private final ItemService itemService;
+    private final ItemImportService itemImportService;
+    private final ResultSizeGovernor resultSizeGovernor;
 
     @PostMapping
     public ItemDto create(@RequestBody ItemDto itemDto, @RequestHeader("X-Sharer-User-Id") Long userId) {
         return itemService.create(itemDto, userId);
     }
 
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_NDJSON_VALUE})
+    public void importItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        itemImportService.checkOwner(userId);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        itemImportService.importItems(userId, request.getInputStream(), response.getOutputStream());
+    }
+
+    @GetMapping("/export")
+    public void exportItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                            HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        itemService.exportAll(userId, response.getOutputStream());
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto update(@RequestBody ItemDto itemDto,
                           @RequestHeader("X-Sharer-User-Id") Long userId,
@@ -28,24 +60,46 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ItemAllFieldsDto get(@PathVariable Long itemId,
-                                @RequestHeader("X-Sharer-User-Id") Long userId) {
-        return itemService.find(itemId, userId);
+    public ResponseEntity<ItemAllFieldsDto> get(@PathVariable Long itemId,
+                                                @RequestHeader("X-Sharer-User-Id") Long userId,
+                                                WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(itemService.findTag(itemId, userId))) {
+            return null;
+        }
+        Tagged<ItemAllFieldsDto> item = itemService.findTagged(itemId, userId);
+        return ResponseEntity.ok().eTag(item.etag()).body(item.body());
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(@PathVariable Long itemId,
+                                               @RequestHeader("X-Sharer-User-Id") Long userId,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime to) {
+        return itemService.findAvailability(itemId, userId, from, to);
     }
 
     @GetMapping("/search")
-    public Collection<ItemDto> searchItems(@RequestParam(name = "text") String searchText,
-                                           @RequestHeader("X-Sharer-User-Id") Long userId,
-                                           @RequestParam(required = false) Integer from,
-                                           @RequestParam(required = false) Integer size) {
-        return itemService.search(searchText, from, size);
+    public ResponseEntity<Collection<ItemDto>> searchItems(@RequestParam(name = "text") String searchText,
+                                                           @RequestHeader("X-Sharer-User-Id") Long userId,
+                                                           @RequestParam(required = false) Integer from,
+                                                           @RequestParam(required = false) Integer size,
+                                                           @RequestParam(required = false) String cursor) {
+        return resultSizeGovernor.respond("items-search", from, size, cursor,
+                (next, limit) -> itemService.scrollSearch(searchText, next, limit),
+                (offset, limit) -> itemService.search(searchText, offset, limit));
     }
 
     @GetMapping
-    public Collection<ItemAllFieldsDto> getAll(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                               @RequestParam(required = false) Integer from,
-                                               @RequestParam(required = false) Integer size) {
-        return itemService.findAll(userId, from, size);
+    public ResponseEntity<Collection<ItemAllFieldsDto>> getAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                               @RequestParam(required = false) Integer from,
+                                                               @RequestParam(required = false) Integer size,
+                                                               @RequestParam(required = false) String cursor) {
+        return resultSizeGovernor.respond("items", from, size, cursor,
+                (next, limit) -> itemService.scrollAll(userId, next, limit),
+                (offset, limit) -> itemService.findAll(userId, offset, limit));
     }
 
     @PostMapping("{itemId}/comment")
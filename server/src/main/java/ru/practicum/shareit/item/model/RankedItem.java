@@ -0,0 +1,4 @@
+package ru.practicum.shareit.item.model;
+
+public record RankedItem(Item item, Integer rank) {
+}
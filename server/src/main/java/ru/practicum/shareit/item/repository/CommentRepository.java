@@ -2,8 +2,10 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.advice.VersionStamp;
 import ru.practicum.shareit.item.model.Comment;
 
 import java.util.Collection;
@@ -12,4 +14,16 @@ import java.util.Collection;
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     @EntityGraph(attributePaths = {"item", "author"})
     Collection<Comment> findAllByItemId(@Param("id") Long itemId);
+
+    @EntityGraph(attributePaths = {"item", "author"})
+    Collection<Comment> findAllByItem_IdIn(Collection<Long> itemIds);
+
+    @Query("""
+            select new ru.practicum.shareit.advice.VersionStamp(count(c), coalesce(max(c.id), 0L),
+                   coalesce(sum(a.version), 0L))
+            from Comment c
+            join c.author a
+            where c.item.id = :itemId
+            """)
+    VersionStamp findStampByItemId(@Param("itemId") Long itemId);
 }
@@ -1,32 +1,75 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.advice.VersionStamp;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.RankedItem;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
     Page<Item> findByOwnerId(Long userid, Pageable pageable);
 
+    Window<Item> findByOwnerId(Long userid, ScrollPosition position, Sort sort, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Item> streamAllByOwnerIdOrderById(Long userid);
+
     @Query("""
             select i
             from Item i
             where (upper(i.name) like upper(concat('%', ?1, '%'))
             or upper(i.description) like upper(concat('%', ?1, '%')))
             and i.available = true
+            order by case when upper(i.name) like upper(concat('%', ?1, '%')) then 0 else 1 end, i.id
             """)
    Page<Item> search(String text, Pageable pageable);
 
+    @Query("""
+            select new ru.practicum.shareit.item.model.RankedItem(i,
+                   case when upper(i.name) like upper(concat('%', :text, '%')) then 0 else 1 end)
+            from Item i
+            where (upper(i.name) like upper(concat('%', :text, '%'))
+            or upper(i.description) like upper(concat('%', :text, '%')))
+            and i.available = true
+            and (case when upper(i.name) like upper(concat('%', :text, '%')) then 0 else 1 end > :afterRank
+            or (case when upper(i.name) like upper(concat('%', :text, '%')) then 0 else 1 end = :afterRank
+            and i.id > :afterId))
+            order by case when upper(i.name) like upper(concat('%', :text, '%')) then 0 else 1 end, i.id
+            """)
+    List<RankedItem> searchAfter(@Param("text") String text,
+                                 @Param("afterRank") Integer afterRank,
+                                 @Param("afterId") Long afterId,
+                                 Limit limit);
+
     @EntityGraph(attributePaths = {"owner", "request"})
     Collection<Item> findAllByRequest_IdIn(Collection<Long> requestsIds);
 
+    @Query("""
+            select new ru.practicum.shareit.advice.VersionStamp(count(i), coalesce(max(i.id), 0L),
+                   coalesce(sum(i.version), 0L))
+            from Item i
+            where i.request.id = :requestId
+            """)
+    VersionStamp findStampByRequestId(@Param("requestId") Long requestId);
+
     @EntityGraph(attributePaths = {"owner", "request"})
     Collection<Item> findAllByRequest_Id(Long requestId);
 }
@@ -0,0 +1,162 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.advice.NdjsonWriter;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.service.UserExistenceIndex;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class ItemImportService {
+    private static final int MAX_DESCRIPTION_LENGTH = 200;
+
+    private final ObjectMapper objectMapper;
+    private final UserExistenceIndex userExistenceIndex;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final NdjsonWriter ndjsonWriter;
+    private final EntityManager entityManager;
+    private final int batchSize;
+
+    public ItemImportService(ObjectMapper objectMapper,
+                             UserExistenceIndex userExistenceIndex,
+                             ItemRepository itemRepository,
+                             ItemRequestRepository itemRequestRepository,
+                             ItemSearchIndex itemSearchIndex,
+                             NdjsonWriter ndjsonWriter,
+                             EntityManager entityManager,
+                             @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.objectMapper = objectMapper;
+        this.userExistenceIndex = userExistenceIndex;
+        this.itemRepository = itemRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.itemSearchIndex = itemSearchIndex;
+        this.ndjsonWriter = ndjsonWriter;
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
+    }
+
+    public void checkOwner(Long userId) {
+        userExistenceIndex.check(userId);
+    }
+
+    public void importItems(Long userId, InputStream in, OutputStream out) throws IOException {
+        checkOwner(userId);
+
+        List<ItemDto> batch = new ArrayList<>(batchSize);
+        int line = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            try {
+                while (token != null && token != JsonToken.END_ARRAY) {
+                    batch.add(parser.readValueAs(ItemDto.class));
+                    line++;
+                    if (batch.size() == batchSize) {
+                        writeResults(importBatch(userId, batch, line - batch.size() + 1), out);
+                        batch.clear();
+                    }
+                    token = parser.nextToken();
+                }
+            } catch (JsonProcessingException e) {
+                writeResults(importBatch(userId, batch, line - batch.size() + 1), out);
+                batch.clear();
+                writeResults(List.of(new ItemImportResultDto(line + 1, null,
+                        "Некорректный JSON: " + e.getOriginalMessage())), out);
+                return;
+            }
+        }
+        writeResults(importBatch(userId, batch, line - batch.size() + 1), out);
+    }
+
+    private List<ItemImportResultDto> importBatch(Long userId, List<ItemDto> batch, int firstLine) {
+        Set<Long> requestIds = batch.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        List<ItemRequest> requests = requestIds.isEmpty() ? List.of() : itemRequestRepository.findAllById(requestIds);
+        requests.forEach(entityManager::detach);
+        Set<Long> existingRequestIds = requests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toSet());
+
+        ItemImportResultDto[] results = new ItemImportResultDto[batch.size()];
+        List<Integer> validPositions = new ArrayList<>();
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            ItemDto itemDto = batch.get(i);
+            String error = validate(itemDto, existingRequestIds);
+            if (error != null) {
+                results[i] = new ItemImportResultDto(firstLine + i, null, error);
+            } else {
+                validPositions.add(i);
+                items.add(ItemMapper.toItem(itemDto, userId));
+            }
+        }
+
+        if (!items.isEmpty()) {
+            try {
+                List<Item> saved = itemRepository.saveAllAndFlush(items);
+                for (int i = 0; i < saved.size(); i++) {
+                    itemSearchIndex.add(saved.get(i));
+                    entityManager.detach(saved.get(i));
+                    int position = validPositions.get(i);
+                    results[position] = new ItemImportResultDto(firstLine + position, saved.get(i).getId(), null);
+                }
+            } catch (DataAccessException e) {
+                for (int position : validPositions) {
+                    results[position] = new ItemImportResultDto(firstLine + position, null,
+                            "Не удалось сохранить вещь");
+                }
+            }
+        }
+        return List.of(results);
+    }
+
+    private static String validate(ItemDto itemDto, Set<Long> existingRequestIds) {
+        if (itemDto == null) return "Вещь не может быть null";
+        if (itemDto.getId() != null) return "При добавлении вещи id должен быть null";
+        if (itemDto.getName() == null || itemDto.getName().isBlank()) return "Название вещи не может быть пустым";
+        if (itemDto.getDescription() == null) return "Описание вещи не может быть null";
+        if (itemDto.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+            return "Длина описания превышает " + MAX_DESCRIPTION_LENGTH + " символов";
+        }
+        if (itemDto.getAvailable() == null) return "Доступность вещи не может быть null";
+        if (itemDto.getRequestId() != null && !existingRequestIds.contains(itemDto.getRequestId())) {
+            return "Запрос вещи с ID_" + itemDto.getRequestId() + " не найден";
+        }
+        return null;
+    }
+
+    private void writeResults(List<ItemImportResultDto> results, OutputStream out) throws IOException {
+        for (ItemImportResultDto result : results) {
+            ndjsonWriter.write(result, out);
+        }
+        out.flush();
+    }
+}
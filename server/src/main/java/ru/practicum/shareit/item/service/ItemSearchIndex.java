@@ -0,0 +1,267 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+@Component
+public class ItemSearchIndex {
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final boolean enabled;
+    private final NavigableMap<String, Postings> nameIndex = new TreeMap<>();
+    private final NavigableMap<String, Postings> descriptionIndex = new TreeMap<>();
+    private final Postings unavailable = new Postings();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           @Value("${shareit.search.engine:database}") String engine) {
+        this.itemRepository = itemRepository;
+        this.enabled = "index".equalsIgnoreCase(engine);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+        PageRequest pageRequest = PageRequest.of(0, LOAD_BATCH_SIZE, Sort.by("id"));
+        Page<Item> items;
+        do {
+            items = itemRepository.findAll(pageRequest);
+            items.forEach(this::add);
+            pageRequest = pageRequest.next();
+        } while (items.hasNext());
+    }
+
+    public void add(Item item) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            addTokens(nameIndex, item.getName(), item.getId());
+            addTokens(descriptionIndex, item.getDescription(), item.getId());
+            if (!Boolean.TRUE.equals(item.getAvailable())) {
+                unavailable.add(item.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void update(String oldName, String oldDescription, Item item) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeTokens(nameIndex, oldName, item.getId());
+            removeTokens(descriptionIndex, oldDescription, item.getId());
+            unavailable.remove(item.getId());
+            add(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Result search(String text) {
+        String[] queryTokens = tokenize(text);
+        if (queryTokens.length == 0) {
+            return new Result(new long[0], new long[0]);
+        }
+
+        lock.readLock().lock();
+        try {
+            long[] nameMatches = null;
+            long[] allMatches = null;
+            for (String token : queryTokens) {
+                long[] byName = prefixUnion(nameIndex, token);
+                long[] byAny = union(byName, prefixUnion(descriptionIndex, token));
+                nameMatches = nameMatches == null ? byName : intersect(nameMatches, byName);
+                allMatches = allMatches == null ? byAny : intersect(allMatches, byAny);
+            }
+            long[] available = Arrays.stream(allMatches)
+                    .filter(id -> !unavailable.contains(id))
+                    .toArray();
+            long[] availableByName = intersect(nameMatches, available);
+            return new Result(availableByName, except(available, availableByName));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void addTokens(NavigableMap<String, Postings> index, String text, long id) {
+        for (String token : tokenize(text)) {
+            index.computeIfAbsent(token, key -> new Postings()).add(id);
+        }
+    }
+
+    private static void removeTokens(NavigableMap<String, Postings> index, String text, long id) {
+        for (String token : tokenize(text)) {
+            Postings postings = index.get(token);
+            if (postings != null && postings.remove(id) && postings.size == 0) {
+                index.remove(token);
+            }
+        }
+    }
+
+    private static String[] tokenize(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    private static long[] prefixUnion(NavigableMap<String, Postings> index, String prefix) {
+        Collection<Postings> matches = index.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+        if (matches.size() == 1) {
+            return matches.iterator().next().toArray();
+        }
+        return matches.stream()
+                .flatMapToLong(postings -> Arrays.stream(postings.ids, 0, postings.size))
+                .sorted()
+                .distinct()
+                .toArray();
+    }
+
+    private static long[] union(long[] left, long[] right) {
+        long[] result = new long[left.length + right.length];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < left.length || j < right.length) {
+            if (j == right.length || (i < left.length && left[i] < right[j])) {
+                result[size++] = left[i++];
+            } else if (i == left.length || right[j] < left[i]) {
+                result[size++] = right[j++];
+            } else {
+                result[size++] = left[i++];
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static long[] intersect(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (right[j] < left[i]) {
+                j++;
+            } else {
+                result[size++] = left[i++];
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static long[] except(long[] left, long[] right) {
+        long[] result = new long[left.length];
+        int j = 0;
+        int size = 0;
+        for (long id : left) {
+            while (j < right.length && right[j] < id) {
+                j++;
+            }
+            if (j == right.length || right[j] != id) {
+                result[size++] = id;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    public record Result(long[] nameMatches, long[] descriptionMatches) {
+        public int size() {
+            return nameMatches.length + descriptionMatches.length;
+        }
+
+        public int rank(int position) {
+            return position < nameMatches.length ? 0 : 1;
+        }
+
+        public long idAt(int position) {
+            return position < nameMatches.length ? nameMatches[position]
+                    : descriptionMatches[position - nameMatches.length];
+        }
+
+        public int positionAfter(int rank, long id) {
+            long[] ids = rank == 0 ? nameMatches : descriptionMatches;
+            int index = Arrays.binarySearch(ids, id);
+            int next = index >= 0 ? index + 1 : -index - 1;
+            return rank == 0 ? next : nameMatches.length + next;
+        }
+
+        public List<Long> ids(int from, int to) {
+            return IntStream.range(from, Math.min(to, size()))
+                    .mapToObj(this::idAt)
+                    .toList();
+        }
+    }
+
+    private static class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            int insertAt = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
@@ -1,11 +1,24 @@
 package ru.practicum.shareit.item.service;
 
+import jakarta.validation.ValidationException;
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.advice.Cursor;
+import ru.practicum.shareit.advice.ETags;
+import ru.practicum.shareit.advice.NdjsonWriter;
 import ru.practicum.shareit.advice.Pagination;
+import ru.practicum.shareit.advice.Tagged;
+import ru.practicum.shareit.advice.VersionStamp;
 import ru.practicum.shareit.advice.enums.BookingStatus;
+import ru.practicum.shareit.advice.enums.SlotStatus;
 import ru.practicum.shareit.advice.exception.AccessDeniedException;
 import ru.practicum.shareit.advice.exception.CommentCreationException;
 import ru.practicum.shareit.advice.exception.EntityNotFoundException;
@@ -13,60 +26,140 @@ import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemAllFieldsDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.RankedItem;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceIndex;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
-
-import static java.util.Comparator.comparing;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor
 public class ItemService {
+    private static final Sort BY_ID = Sort.by("id");
+    private static final Sort BY_RELEVANCE = Sort.by("rank", "id");
+    private static final long MAX_AVAILABILITY_HOURS = 366 * 24;
+
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final NdjsonWriter ndjsonWriter;
+    private final UserExistenceIndex userExistenceIndex;
+
+    public String findTag(Long itemId, Long userId) {
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new EntityNotFoundException("Предмет", itemId));
+        VersionStamp comments = commentRepository.findStampByItemId(itemId);
+
+        if (!item.getOwner().getId().equals(userId)) {
+            return ETags.of(item.getVersion(), comments);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        return ETags.of(item.getVersion(), comments,
+                bookingStamp(findLastBooking(itemId, now)), bookingStamp(findNextBooking(itemId, now)));
+    }
 
     public ItemAllFieldsDto find(Long itemId, Long userId) {
+        return findTagged(itemId, userId).body();
+    }
+
+    public Tagged<ItemAllFieldsDto> findTagged(Long itemId, Long userId) {
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new EntityNotFoundException("Предмет", itemId));
-        Collection<Booking> bookings = bookingRepository.findAllByItem_Id(itemId);
+        Collection<Comment> comments = commentRepository.findAllByItemId(itemId);
+        VersionStamp commentStamp = VersionStamp.of(comments, Comment::getId,
+                comment -> comment.getAuthor().getVersion());
+
+        if (!item.getOwner().getId().equals(userId)) {
+            return new Tagged<>(createItemAllFieldsDto(item, null, null, comments),
+                    ETags.of(item.getVersion(), commentStamp));
+        }
 
-        return createItemAllFieldsDtoWithBookings(item, bookings, userId);
+        LocalDateTime now = LocalDateTime.now();
+        Booking lastBooking = findLastBooking(itemId, now);
+        Booking nextBooking = findNextBooking(itemId, now);
+        return new Tagged<>(createItemAllFieldsDto(item, lastBooking, nextBooking, comments),
+                ETags.of(item.getVersion(), commentStamp, bookingStamp(lastBooking), bookingStamp(nextBooking)));
     }
 
     public Collection<ItemAllFieldsDto> findAll(Long userId, Integer from, Integer size) {
-        PageRequest pageRequest = Pagination.makePageRequest(from, size);
-        Page<Item> items;
-        Page<Booking> bookings;
-        items = itemRepository.findByOwnerId(userId,
-                Objects.requireNonNullElseGet(pageRequest, () -> PageRequest.of(0, Integer.MAX_VALUE)));
+        Page<Item> items = itemRepository.findByOwnerId(userId, Pagination.makePageable(from, size, BY_ID));
 
-        bookings = bookingRepository.findAllByItem_Owner_Id(userId, pageRequest);
+        return createItemAllFieldsDtos(items.getContent());
+    }
 
-        Map<Long, List<Booking>> bookingsByItem = bookings.stream()
-                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+    public Window<ItemAllFieldsDto> scrollAll(Long userId, String cursor, Integer size) {
+        Window<Item> items = itemRepository.findByOwnerId(userId, Cursor.decode(cursor, BY_ID, Long.class), BY_ID,
+                Cursor.makeLimit(size));
 
-        return items.stream()
-                .map(item -> {
-                    List<Booking> itemBookings = bookingsByItem.getOrDefault(item.getId(), Collections.emptyList());
-                    return createItemAllFieldsDtoWithBookings(item, itemBookings, userId);
-                })
-                .collect(Collectors.toList());
+        return Window.from(createItemAllFieldsDtos(items.getContent()), items::positionAt, items.hasNext());
+    }
+
+    @Transactional(readOnly = true)
+    public void exportAll(Long userId, OutputStream out) throws IOException {
+        try (Stream<Item> items = itemRepository.streamAllByOwnerIdOrderById(userId)) {
+            ndjsonWriter.writeEntities(items, ItemMapper::toItemDto, out);
+        }
+    }
+
+    public ItemAvailabilityDto findAvailability(Long itemId, Long userId, LocalDateTime from, LocalDateTime to) {
+        userExistenceIndex.check(userId);
+        if (!itemRepository.existsById(itemId)) {
+            throw new EntityNotFoundException("Предмет", itemId);
+        }
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Начало периода должно быть раньше его окончания");
+        }
+
+        LocalDateTime origin = from.truncatedTo(ChronoUnit.HOURS);
+        long hours = hoursUntil(origin, to);
+        if (hours > MAX_AVAILABILITY_HOURS) {
+            throw new ValidationException("Период не может быть длиннее " + MAX_AVAILABILITY_HOURS + " часов");
+        }
+
+        BitSet booked = new BitSet((int) hours);
+        BitSet waiting = new BitSet((int) hours);
+        bookingRepository.findAllByItem_IdAndStatusInAndEndTimeAfterAndStartBefore(itemId,
+                        List.of(BookingStatus.APPROVED, BookingStatus.WAITING), origin, origin.plusHours(hours))
+                .forEach(booking -> (booking.getStatus() == BookingStatus.APPROVED ? booked : waiting).set(
+                        (int) Math.max(0, ChronoUnit.HOURS.between(origin, booking.getStart())),
+                        (int) Math.min(hours, hoursUntil(origin, booking.getEndTime()))));
+        waiting.andNot(booked);
+
+        List<AvailabilitySlotDto> slots = new ArrayList<>();
+        int slotStart = 0;
+        for (int hour = 1; hour <= hours; hour++) {
+            if (hour == hours || slotStatus(booked, waiting, hour) != slotStatus(booked, waiting, slotStart)) {
+                slots.add(new AvailabilitySlotDto(origin.plusHours(slotStart), origin.plusHours(hour),
+                        slotStatus(booked, waiting, slotStart)));
+                slotStart = hour;
+            }
+        }
+
+        return new ItemAvailabilityDto(itemId, origin, origin.plusHours(hours), slots);
     }
 
     public ItemDto create(ItemDto itemDto, Long userId) {
@@ -76,7 +169,9 @@ public class ItemService {
             ItemRequest itemRequest = itemRequestRepository.findById(itemDto.getRequestId())
                     .orElseThrow(() -> new EntityNotFoundException("Запрос вещи", itemDto.getRequestId()));
         }
-        return ItemMapper.toItemDto(itemRepository.save(ItemMapper.toItem(itemDto, userId)));
+        Item item = itemRepository.save(ItemMapper.toItem(itemDto, userId));
+        itemSearchIndex.add(item);
+        return ItemMapper.toItemDto(item);
     }
 
     public ItemDto update(ItemDto itemUpdateDto, Long itemId, Long userId) {
@@ -87,11 +182,15 @@ public class ItemService {
             throw new AccessDeniedException("Редактировать вещь может только владелец вещи");
         }
 
+        String oldName = itemUpdate.getName();
+        String oldDescription = itemUpdate.getDescription();
         if (itemUpdateDto.getName() != null) itemUpdate.setName(itemUpdateDto.getName());
         if (itemUpdateDto.getDescription() != null) itemUpdate.setDescription(itemUpdateDto.getDescription());
         if (itemUpdateDto.getAvailable() != null) itemUpdate.setAvailable(itemUpdateDto.getAvailable());
 
-        return ItemMapper.toItemDto(itemRepository.save(itemUpdate));
+        Item item = itemRepository.save(itemUpdate);
+        itemSearchIndex.update(oldName, oldDescription, item);
+        return ItemMapper.toItemDto(item);
     }
 
     public Collection<ItemDto> search(String text, Integer from, Integer size) {
@@ -99,16 +198,51 @@ public class ItemService {
             return Collections.emptyList();
         }
 
-        PageRequest pageRequest = Pagination.makePageRequest(from, size);
-        Page<Item> items;
-        items = itemRepository.search(text,
-                Objects.requireNonNullElseGet(pageRequest, () -> PageRequest.of(0, Integer.MAX_VALUE)));
+        if (itemSearchIndex.isEnabled()) {
+            ItemSearchIndex.Result result = itemSearchIndex.search(text);
+            PageRequest pageRequest = Pagination.makePageRequestOrFirst(from, size);
+            int start = (int) pageRequest.getOffset();
+            int end = start + pageRequest.getPageSize();
+            return findItemsInOrder(result.ids(start, end));
+        }
+
+        Page<Item> items = itemRepository.search(text, Pagination.makePageRequestOrFirst(from, size));
 
         return items.stream()
                 .map(ItemMapper::toItemDto)
                 .toList();
     }
 
+    public Window<ItemDto> scrollSearch(String text, String cursor, Integer size) {
+        if (text == null || text.isEmpty()) {
+            return Window.from(Collections.emptyList(), ScrollPosition::offset);
+        }
+
+        KeysetScrollPosition position = Cursor.decode(cursor, BY_RELEVANCE, Integer.class, Long.class);
+        int limit = Cursor.makeLimit(size).max();
+        Integer afterRank = (Integer) position.getKeys().getOrDefault("rank", 0);
+        Long afterId = (Long) position.getKeys().getOrDefault("id", 0L);
+
+        if (itemSearchIndex.isEnabled()) {
+            ItemSearchIndex.Result result = itemSearchIndex.search(text);
+            int start = position.isInitial() ? 0 : result.positionAfter(afterRank, afterId);
+            List<ItemDto> page = findItemsInOrder(result.ids(start, start + limit));
+            return Window.from(page, index -> ScrollPosition.forward(Map.of(
+                            "rank", result.rank(start + index),
+                            "id", page.get(index).getId())),
+                    start + limit < result.size());
+        }
+
+        List<RankedItem> items = itemRepository.searchAfter(text, afterRank, afterId, Limit.of(limit + 1));
+        List<RankedItem> page = items.subList(0, Math.min(limit, items.size()));
+
+        return Window.from(page.stream().map(ranked -> ItemMapper.toItemDto(ranked.item())).toList(),
+                index -> ScrollPosition.forward(Map.of(
+                        "rank", page.get(index).rank(),
+                        "id", page.get(index).item().getId())),
+                items.size() > limit);
+    }
+
     public CommentDto createComment(CommentDto commentDto, Long itemId, Long userId) {
         User author = userRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException("Пользователь", userId));
@@ -122,31 +256,80 @@ public class ItemService {
         return CommentMapper.toCommentDto(commentRepository.save(CommentMapper.toComment(commentDto, author, itemId)));
     }
 
-    private ItemAllFieldsDto createItemAllFieldsDtoWithBookings(Item item, Collection<Booking> itemBookings,
-                                                                Long userId) {
-        Collection<CommentDto> comments = commentRepository.findAllByItemId(item.getId())
-                .stream()
-                .map(CommentMapper::toCommentDto)
+    private List<ItemDto> findItemsInOrder(List<Long> ids) {
+        Map<Long, Item> itemsById = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, item -> item));
+
+        return ids.stream()
+                .map(itemsById::get)
+                .filter(Objects::nonNull)
+                .map(ItemMapper::toItemDto)
                 .toList();
+    }
 
-        BookingDto endBooking = null;
-        BookingDto startNextBooking = null;
+    private Booking findLastBooking(Long itemId, LocalDateTime now) {
+        return bookingRepository.findFirstByItem_IdAndStatusAndEndTimeBeforeOrderByEndTimeDesc(itemId,
+                BookingStatus.APPROVED, now).orElse(null);
+    }
 
-        if (!itemBookings.isEmpty() && item.getOwner().getId().equals(userId)) {
-            endBooking = itemBookings.stream()
-                    .filter(booking -> booking.getEndTime().isBefore(LocalDateTime.now()))
-                    .max(comparing(Booking::getEndTime))
-                    .map(booking -> BookingMapper.toBookingDto(booking, booking.getBooker().getId()))
-                    .orElse(null);
+    private Booking findNextBooking(Long itemId, LocalDateTime now) {
+        return bookingRepository.findFirstByItem_IdAndStatusAndStartAfterOrderByStartAsc(itemId,
+                BookingStatus.APPROVED, now).orElse(null);
+    }
 
+    private static VersionStamp bookingStamp(Booking booking) {
+        return VersionStamp.of(booking != null ? List.of(booking) : List.of(), Booking::getId, Booking::getVersion);
+    }
 
-            startNextBooking = itemBookings.stream()
-                    .filter(booking -> booking.getStart().isAfter(LocalDateTime.now()))
-                    .min(comparing(Booking::getStart))
-                    .map(booking -> BookingMapper.toBookingDto(booking, booking.getBooker().getId()))
-                    .orElse(null);
+    private List<ItemAllFieldsDto> createItemAllFieldsDtos(List<Item> items) {
+        if (items.isEmpty()) {
+            return Collections.emptyList();
         }
 
-        return ItemMapper.toItemAllFieldsDto(item, endBooking, startNextBooking, comments);
+        Collection<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .toList();
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Booking> lastBookingByItem = new HashMap<>();
+        Map<Long, Booking> nextBookingByItem = new HashMap<>();
+
+        bookingRepository.findLastAndNextBookings(itemIds, BookingStatus.APPROVED, now)
+                .forEach(booking -> (booking.getEndTime().isBefore(now) ? lastBookingByItem : nextBookingByItem)
+                        .putIfAbsent(booking.getItem().getId(), booking));
+
+        Map<Long, List<Comment>> commentsByItem = commentRepository.findAllByItem_IdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+
+        return items.stream()
+                .map(item -> createItemAllFieldsDto(item,
+                        lastBookingByItem.get(item.getId()),
+                        nextBookingByItem.get(item.getId()),
+                        commentsByItem.getOrDefault(item.getId(), Collections.emptyList())))
+                .collect(Collectors.toList());
+    }
+
+    private ItemAllFieldsDto createItemAllFieldsDto(Item item, Booking lastBooking, Booking nextBooking,
+                                                    Collection<Comment> itemComments) {
+        Collection<CommentDto> comments = itemComments.stream()
+                .map(CommentMapper::toCommentDto)
+                .toList();
+
+        return ItemMapper.toItemAllFieldsDto(item, toBookingDto(lastBooking), toBookingDto(nextBooking), comments);
+    }
+
+    private static BookingDto toBookingDto(Booking booking) {
+        return booking != null ? BookingMapper.toBookingDto(booking, booking.getBooker().getId()) : null;
+    }
+
+    private static long hoursUntil(LocalDateTime origin, LocalDateTime time) {
+        long hours = ChronoUnit.HOURS.between(origin, time);
+        return origin.plusHours(hours).isBefore(time) ? hours + 1 : hours;
+    }
+
+    private static SlotStatus slotStatus(BitSet booked, BitSet waiting, int hour) {
+        if (booked.get(hour)) return SlotStatus.BOOKED;
+        if (waiting.get(hour)) return SlotStatus.WAITING;
+        return SlotStatus.FREE;
     }
 }
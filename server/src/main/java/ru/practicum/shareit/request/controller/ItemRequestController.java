@@ -1,7 +1,12 @@
 package ru.practicum.shareit.request.controller;
 
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.advice.ResultSizeGovernor;
+import ru.practicum.shareit.advice.Tagged;
 import ru.practicum.shareit.request.dto.ItemRequestAllFieldsDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -13,6 +18,7 @@ import java.util.Collection;
 @RequestMapping(path = "/requests")
 public class ItemRequestController {
     private final ItemRequestService itemRequestService;
+    private final ResultSizeGovernor resultSizeGovernor;
 
     @PostMapping
     public ItemRequestDto create(@RequestBody ItemRequestDto itemRequestDto,
@@ -21,22 +27,35 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public Collection<ItemRequestAllFieldsDto> getAllUserRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                                  @RequestParam(required = false) Integer from,
-                                                                  @RequestParam(required = false) Integer size) {
-        return itemRequestService.findAllUserRequests(userId, from, size);
+    public ResponseEntity<Collection<ItemRequestAllFieldsDto>> getAllUserRequests(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(required = false) Integer from,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor) {
+        return resultSizeGovernor.respond("requests", from, size, cursor,
+                (next, limit) -> itemRequestService.scrollAllUserRequests(userId, next, limit),
+                (offset, limit) -> itemRequestService.findAllUserRequests(userId, offset, limit));
     }
 
     @GetMapping("/all")
-    public Collection<ItemRequestDto> getAll(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                             @RequestParam(required = false) Integer from,
-                                             @RequestParam(required = false) Integer size) {
-        return itemRequestService.findAll(userId, from, size);
+    public ResponseEntity<Collection<ItemRequestDto>> getAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                             @RequestParam(required = false) Integer from,
+                                                             @RequestParam(required = false) Integer size,
+                                                             @RequestParam(required = false) String cursor) {
+        return resultSizeGovernor.respond("requests-all", from, size, cursor,
+                (next, limit) -> itemRequestService.scrollAll(userId, next, limit),
+                (offset, limit) -> itemRequestService.findAll(userId, offset, limit));
     }
 
     @GetMapping("{requestId}")
-    public ItemRequestAllFieldsDto get(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                       @PathVariable(name = "requestId") Long requestId) {
-        return itemRequestService.find(requestId, userId);
+    public ResponseEntity<ItemRequestAllFieldsDto> get(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                       @PathVariable(name = "requestId") Long requestId,
+                                                       WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(itemRequestService.findTag(requestId, userId))) {
+            return null;
+        }
+        Tagged<ItemRequestAllFieldsDto> itemRequest = itemRequestService.findTagged(requestId, userId);
+        return ResponseEntity.ok().eTag(itemRequest.etag()).body(itemRequest.body());
     }
 }
@@ -1,7 +1,11 @@
 package ru.practicum.shareit.request.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -13,4 +17,10 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
 
     @EntityGraph(attributePaths = {"requestor"})
     Page<ItemRequest> findAllByRequestor_IdNotOrderByCreatedDesc(Long requestorId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"requestor"})
+    Window<ItemRequest> findAllByRequestor_Id(Long requestorId, ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(attributePaths = {"requestor"})
+    Window<ItemRequest> findAllByRequestor_IdNot(Long requestorId, ScrollPosition position, Sort sort, Limit limit);
 }
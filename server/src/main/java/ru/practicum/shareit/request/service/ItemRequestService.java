@@ -2,9 +2,14 @@ package ru.practicum.shareit.request.service;
 
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.advice.Cursor;
+import ru.practicum.shareit.advice.ETags;
 import ru.practicum.shareit.advice.Pagination;
+import ru.practicum.shareit.advice.Tagged;
+import ru.practicum.shareit.advice.VersionStamp;
 import ru.practicum.shareit.advice.exception.EntityNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -13,73 +18,104 @@ import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.mappper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceIndex;
 
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
 public class ItemRequestService {
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "created", "id");
+
     private final ItemRequestRepository itemRequestRepository;
-    private final UserRepository userRepository;
+    private final UserExistenceIndex userExistenceIndex;
     private final ItemRepository itemRepository;
 
     public ItemRequestDto create(ItemRequestDto itemRequestDto, Long userId) {
-        userRepository.findById(userId).orElseThrow(() ->
-                new EntityNotFoundException("Пользователь", userId));
+        userExistenceIndex.check(userId);
 
         return ItemRequestMapper.toItemRequestDto(itemRequestRepository
                 .save(ItemRequestMapper.toItemRequest(itemRequestDto, userId)));
     }
 
     public Collection<ItemRequestAllFieldsDto> findAllUserRequests(Long userId, Integer from, Integer size) {
-        userRepository.findById(userId).orElseThrow(() ->
-                new EntityNotFoundException("Пользователь", userId));
+        userExistenceIndex.check(userId);
 
-        PageRequest pageRequest = Pagination.makePageRequest(from, size);
-        Page<ItemRequest> userRequests;
+        Page<ItemRequest> userRequests = itemRequestRepository.findAllByRequestor_IdOrderByCreatedDesc(userId,
+                Pagination.makePageRequestOrFirst(from, size));
 
-        userRequests = itemRequestRepository.findAllByRequestor_IdOrderByCreatedDesc(userId,
-                Objects.requireNonNullElseGet(pageRequest, () -> PageRequest.of(0, Integer.MAX_VALUE)));
-        Collection<Long> requestsIds = userRequests.stream()
-                .map(ItemRequest::getId)
-                .toList();
+        return createItemRequestAllFieldsDtos(userRequests.getContent());
+    }
 
-        Collection<Item> itemRequests = itemRepository.findAllByRequest_IdIn(requestsIds);
+    public Window<ItemRequestAllFieldsDto> scrollAllUserRequests(Long userId, String cursor, Integer size) {
+        userExistenceIndex.check(userId);
 
-        Map<Long, List<Item>> itemsByRequest = itemRequests.stream()
-                .collect(Collectors.groupingBy(item -> item.getRequest().getId()));
+        Window<ItemRequest> userRequests = itemRequestRepository.findAllByRequestor_Id(userId,
+                Cursor.decode(cursor, NEWEST_FIRST, LocalDateTime.class, Long.class), NEWEST_FIRST,
+                Cursor.makeLimit(size));
 
-        return userRequests.stream()
-                .map(itemRequest -> {
-                    List<Item> relatedItems = itemsByRequest.getOrDefault(itemRequest.getId(), Collections.emptyList());
-                    return ItemRequestMapper.toItemRequestAllFieldsDto(itemRequest, relatedItems);
-                })
-                .toList();
+        return Window.from(createItemRequestAllFieldsDtos(userRequests.getContent()), userRequests::positionAt,
+                userRequests.hasNext());
     }
 
     public Collection<ItemRequestDto> findAll(Long userId, Integer from, Integer size) {
-        userRepository.findById(userId).orElseThrow(() ->
-                new EntityNotFoundException("Пользователь", userId));
-
-        PageRequest pageRequest = Pagination.makePageRequest(from, size);
+        userExistenceIndex.check(userId);
 
         return itemRequestRepository.findAllByRequestor_IdNotOrderByCreatedDesc(userId,
-                        Objects.requireNonNullElseGet(pageRequest, () ->
-                                PageRequest.of(0, Integer.MAX_VALUE))).stream()
+                        Pagination.makePageRequestOrFirst(from, size)).stream()
                 .map(ItemRequestMapper::toItemRequestDto)
                 .toList();
     }
 
+    public Window<ItemRequestDto> scrollAll(Long userId, String cursor, Integer size) {
+        userExistenceIndex.check(userId);
+
+        return itemRequestRepository.findAllByRequestor_IdNot(userId,
+                        Cursor.decode(cursor, NEWEST_FIRST, LocalDateTime.class, Long.class), NEWEST_FIRST,
+                        Cursor.makeLimit(size))
+                .map(ItemRequestMapper::toItemRequestDto);
+    }
+
+    public String findTag(Long requestId, Long userId) {
+        userExistenceIndex.check(userId);
+        ItemRequest itemRequest = itemRequestRepository.findById(requestId)
+                .orElseThrow(() -> new EntityNotFoundException("Запрос на вещь", requestId));
+
+        return ETags.of(itemRequest.getVersion(), itemRepository.findStampByRequestId(requestId));
+    }
+
     public ItemRequestAllFieldsDto find(Long requestId, Long userId) {
-        userRepository.findById(userId).orElseThrow(() ->
-                new EntityNotFoundException("Пользователь", userId));
+        return findTagged(requestId, userId).body();
+    }
+
+    public Tagged<ItemRequestAllFieldsDto> findTagged(Long requestId, Long userId) {
+        userExistenceIndex.check(userId);
         ItemRequest itemRequest = itemRequestRepository.findById(requestId)
                 .orElseThrow(() -> new EntityNotFoundException("Запрос на вещь", requestId));
 
         Collection<Item> itemsRequest = itemRepository.findAllByRequest_Id(requestId);
 
-        return ItemRequestMapper.toItemRequestAllFieldsDto(itemRequest, itemsRequest);
+        return new Tagged<>(ItemRequestMapper.toItemRequestAllFieldsDto(itemRequest, itemsRequest),
+                ETags.of(itemRequest.getVersion(), VersionStamp.of(itemsRequest, Item::getId, Item::getVersion)));
+    }
+
+    private List<ItemRequestAllFieldsDto> createItemRequestAllFieldsDtos(List<ItemRequest> userRequests) {
+        Collection<Long> requestsIds = userRequests.stream()
+                .map(ItemRequest::getId)
+                .toList();
+
+        Collection<Item> itemRequests = itemRepository.findAllByRequest_IdIn(requestsIds);
+
+        Map<Long, List<Item>> itemsByRequest = itemRequests.stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId()));
+
+        return userRequests.stream()
+                .map(itemRequest -> {
+                    List<Item> relatedItems = itemsByRequest.getOrDefault(itemRequest.getId(), Collections.emptyList());
+                    return ItemRequestMapper.toItemRequestAllFieldsDto(itemRequest, relatedItems);
+                })
+                .toList();
     }
 }
@@ -1,8 +1,13 @@
 package ru.practicum.shareit.user.controller;
 
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.advice.ResultSizeGovernor;
+import ru.practicum.shareit.advice.Tagged;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
@@ -13,15 +18,25 @@ import java.util.Collection;
 @RequestMapping(path = "/users")
 public class UserController {
     private final UserService userService;
+    private final ResultSizeGovernor resultSizeGovernor;
 
     @GetMapping
-    public Collection<UserDto> getAll() {
-        return userService.findAll();
+    public ResponseEntity<Collection<UserDto>> getAll(@RequestParam(required = false) Integer from,
+                                                      @RequestParam(required = false) Integer size,
+                                                      @RequestParam(required = false) String cursor) {
+        return resultSizeGovernor.respond("users", from, size, cursor,
+                userService::scrollAll,
+                userService::findAll);
     }
 
     @GetMapping("/{userId}")
-    public UserDto get(@PathVariable Long userId) {
-        return userService.find(userId);
+    public ResponseEntity<UserDto> get(@PathVariable Long userId, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(userService.findTag(userId))) {
+            return null;
+        }
+        Tagged<UserDto> user = userService.findTagged(userId);
+        return ResponseEntity.ok().eTag(user.etag()).body(user.body());
     }
 
     @PostMapping
@@ -0,0 +1,220 @@
+package ru.practicum.shareit.user.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.advice.exception.EntityNotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Component
+public class UserExistenceIndex {
+    public static final String CHECKS_METRIC = "shareit.user.existence.checks";
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+    private final int wordCount;
+    private final long bitCount;
+    private final int hashCount;
+    private final Map<Long, Boolean> known;
+    private volatile Filter filter;
+    private volatile boolean ready;
+
+    public UserExistenceIndex(UserRepository userRepository, MeterRegistry meterRegistry,
+                              @Value("${shareit.user.existence.expected-users:100000}") int expectedUsers,
+                              @Value("${shareit.user.existence.false-positive-rate:0.01}") double falsePositiveRate,
+                              @Value("${shareit.user.existence.confirmed-cache-size:10000}") int maxConfirmed) {
+        if (expectedUsers <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid user existence filter settings");
+        }
+        this.userRepository = userRepository;
+        this.meterRegistry = meterRegistry;
+        long optimalBits = (long) Math.ceil(-expectedUsers * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.wordCount = (int) ((optimalBits + 63) / 64);
+        this.bitCount = wordCount * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedUsers * Math.log(2)));
+        this.filter = new Filter();
+        this.known = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                return size() > maxConfirmed;
+            }
+        };
+
+        Gauge.builder("shareit.user.existence.filter.bytes", this, index -> index.bitCount / 8.0)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("shareit.user.existence.filter.fpp", this, UserExistenceIndex::expectedFalsePositiveRate)
+                .register(meterRegistry);
+        Gauge.builder("shareit.user.existence.filter.insertions", this, index -> index.filter.insertions.get())
+                .register(meterRegistry);
+        Gauge.builder("shareit.user.existence.confirmed.size", this, UserExistenceIndex::knownSize)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        refresh();
+    }
+
+    @Scheduled(initialDelayString = "${shareit.user.existence.refresh-interval-seconds:60}",
+            fixedDelayString = "${shareit.user.existence.refresh-interval-seconds:60}", timeUnit = TimeUnit.SECONDS)
+    public void refresh() {
+        Map<Long, Boolean> knownBefore;
+        synchronized (known) {
+            knownBefore = new HashMap<>(known);
+        }
+
+        Filter fresh = new Filter();
+        Set<Long> listed = new HashSet<>();
+        long afterId = 0L;
+        List<Long> ids;
+        do {
+            ids = userRepository.findIdsAfter(afterId, Limit.of(LOAD_BATCH_SIZE));
+            for (Long id : ids) {
+                fresh.put(id);
+                if (knownBefore.containsKey(id)) {
+                    listed.add(id);
+                }
+            }
+            if (!ids.isEmpty()) {
+                afterId = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == LOAD_BATCH_SIZE);
+
+        synchronized (known) {
+            known.entrySet().removeIf(entry -> entry.getValue().equals(knownBefore.get(entry.getKey()))
+                    && entry.getValue() != listed.contains(entry.getKey()));
+            known.forEach((id, present) -> {
+                if (present) {
+                    fresh.put(id);
+                }
+            });
+            filter = fresh;
+        }
+        ready = true;
+    }
+
+    public void check(Long userId) {
+        if (!exists(userId)) {
+            throw new EntityNotFoundException("Пользователь", userId);
+        }
+    }
+
+    public boolean exists(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        synchronized (known) {
+            Boolean present = known.get(userId);
+            if (present != null) {
+                count(present ? "confirmed" : "rejected");
+                return present;
+            }
+        }
+
+        boolean mightContain = ready && filter.mightContain(userId);
+        if (userRepository.existsById(userId)) {
+            count(mightContain ? "found" : "filter-miss");
+            add(userId);
+            return true;
+        }
+        count(mightContain ? "false-positive" : "missing");
+        synchronized (known) {
+            known.putIfAbsent(userId, Boolean.FALSE);
+        }
+        return false;
+    }
+
+    public void add(Long userId) {
+        synchronized (known) {
+            filter.put(userId);
+            known.put(userId, Boolean.TRUE);
+        }
+    }
+
+    public void remove(Long userId) {
+        synchronized (known) {
+            known.remove(userId);
+        }
+    }
+
+    private double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) hashCount * filter.insertions.get() / bitCount), hashCount);
+    }
+
+    private int knownSize() {
+        synchronized (known) {
+            return known.size();
+        }
+    }
+
+    private void count(String result) {
+        meterRegistry.counter(CHECKS_METRIC, "result", result).increment();
+    }
+
+    private class Filter {
+        private final AtomicLongArray bits = new AtomicLongArray(wordCount);
+        private final AtomicLong insertions = new AtomicLong();
+
+        private void put(long userId) {
+            long hash1 = mix(userId);
+            long hash2 = mix(hash1) | 1;
+            boolean changed = false;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+                changed |= setBit(bit);
+            }
+            if (changed) {
+                insertions.incrementAndGet();
+            }
+        }
+
+        private boolean mightContain(long userId) {
+            long hash1 = mix(userId);
+            long hash2 = mix(hash1) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean setBit(long bit) {
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word;
+            do {
+                word = bits.get(index);
+                if ((word & mask) != 0) {
+                    return false;
+                }
+            } while (!bits.compareAndSet(index, word, word | mask));
+            return true;
+        }
+    }
+
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
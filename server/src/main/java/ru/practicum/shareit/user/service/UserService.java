@@ -1,7 +1,13 @@
 package ru.practicum.shareit.user.service;
 
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.advice.Cursor;
+import ru.practicum.shareit.advice.ETags;
+import ru.practicum.shareit.advice.Pagination;
+import ru.practicum.shareit.advice.Tagged;
 import ru.practicum.shareit.advice.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.DuplicateEmailException;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -15,26 +21,46 @@ import java.util.stream.Collectors;
 @Service
 @AllArgsConstructor
 public class UserService {
+    private static final Sort BY_ID = Sort.by("id");
+
     private final UserRepository userRepository;
+    private final UserExistenceIndex userExistenceIndex;
+
+    public String findTag(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new EntityNotFoundException("Пользователь", userId));
+        return ETags.of(user.getVersion());
+    }
 
     public UserDto find(Long userId) {
+        return findTagged(userId).body();
+    }
+
+    public Tagged<UserDto> findTagged(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException("Пользователь", userId));
-        return UserMapper.toUserDto(user);
+        return new Tagged<>(UserMapper.toUserDto(user), ETags.of(user.getVersion()));
     }
 
-    public Collection<UserDto> findAll() {
-        Collection<User> users = userRepository.findAll();
+    public Collection<UserDto> findAll(Integer from, Integer size) {
+        Collection<User> users = userRepository.findAll(Pagination.makePageable(from, size, BY_ID)).getContent();
         return users.stream()
                 .map(UserMapper::toUserDto)
                 .collect(Collectors.toList());
     }
 
+    public Window<UserDto> scrollAll(String cursor, Integer size) {
+        return userRepository.findAllBy(Cursor.decode(cursor, BY_ID, Long.class), BY_ID, Cursor.makeLimit(size))
+                .map(UserMapper::toUserDto);
+    }
+
     public UserDto create(UserDto userDto) {
         if (userRepository.existsByEmail(userDto.getEmail())) {
             throw new DuplicateEmailException("Email уже используется");
         }
-        return UserMapper.toUserDto(userRepository.save(UserMapper.toUser(userDto)));
+        User user = userRepository.save(UserMapper.toUser(userDto));
+        userExistenceIndex.add(user.getId());
+        return UserMapper.toUserDto(user);
     }
 
     public UserDto update(UserDto userDto, Long userId) {
@@ -53,5 +79,6 @@ public class UserService {
 
     public void delete(Long userId) {
         userRepository.deleteById(userId);
+        userExistenceIndex.remove(userId);
     }
 }
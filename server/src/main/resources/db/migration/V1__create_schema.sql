@@ -37,4 +37,3 @@ created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
 item_id bigint NOT NULL REFERENCES items (id),
 author_id bigint NOT NULL references users (id)
 );
-
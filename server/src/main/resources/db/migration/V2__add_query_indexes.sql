@@ -0,0 +1,17 @@
+CREATE INDEX IF NOT EXISTS items_owner_idx ON items (owner_id, id);
+
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS requests_requestor_created_idx ON requests (requestor_id, created DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS comments_item_idx ON comments (item_id);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, at_start DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_status_start_idx ON bookings (booker_id, status, at_start DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_item_status_end_idx ON bookings (booker_id, item_id, status, at_end);
+
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx ON bookings (item_id, at_start DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_item_status_start_end_idx ON bookings (item_id, status, at_start, at_end);
@@ -1,8 +1,15 @@
 package ru.practicum.shareit.booking.controller;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.advice.ResultSizeGovernor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import ru.practicum.shareit.advice.Cursor;
 import ru.practicum.shareit.advice.enums.BookingState;
 import ru.practicum.shareit.advice.enums.BookingStatus;
 import ru.practicum.shareit.advice.exception.AccessDeniedException;
@@ -20,10 +27,14 @@ import ru.practicum.shareit.user.dto.UserDto;
 import org.junit.jupiter.api.Test;
 import ru.practicum.shareit.user.model.User;
 
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
 
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -31,10 +42,14 @@ import static org.springframework.http.MediaType.*;
 import static java.nio.charset.StandardCharsets.*;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @WebMvcTest(controllers = BookingController.class)
+@Import({ResultSizeGovernor.class, SimpleMeterRegistry.class})
 public class BookingControllerTest {
     private final ItemDto itemDto = new ItemDto(1L, "Pen", "Blue pen", true, 1L);
     private final LocalDateTime startTime = LocalDateTime.of(2025, 6, 11, 10, 0);
@@ -48,6 +63,8 @@ public class BookingControllerTest {
     @Autowired
     ObjectMapper mapper;
     @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
     private MockMvc mvc;
 
     private final BookingDto bookingDto = BookingDto.builder()
@@ -71,6 +88,47 @@ public class BookingControllerTest {
             .itemId(1L)
             .build();
 
+    @Test
+    void createBookingsTest() throws Exception {
+        when(bookingService.createAll(anyLong(), anyList()))
+                .thenReturn(List.of(bookingDto));
+        mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(List.of(bookingCreateDto)))
+                        .header(headerSharerUserId, 1)
+                        .contentType(APPLICATION_JSON)
+                        .characterEncoding(UTF_8)
+                        .accept(APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(bookingDto.getId()), Long.class));
+    }
+
+    @Test
+    void exportBookingsTest() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(1).write("{\"id\":1}\n".getBytes(UTF_8));
+            return null;
+        }).when(bookingService).exportUserBookings(eq(1L), any());
+        mvc.perform(get("/bookings/export")
+                        .header(headerSharerUserId, 1)
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(APPLICATION_NDJSON))
+                .andExpect(jsonPath("$.id", is(1)));
+    }
+
+    @Test
+    void exportOwnerBookingsForUnknownUserTest() throws Exception {
+        doThrow(new EntityNotFoundException("Пользователь", 1L)).when(bookingService)
+                .exportOwnerBookings(eq(1L), any());
+        mvc.perform(get("/bookings/owner/export")
+                        .header(headerSharerUserId, 1)
+                )
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").exists());
+    }
+
     @Test
     void getAllBookingsTest() throws Exception {
         when(bookingService.findAllUserBookings(anyLong(), eq(BookingState.ALL), anyInt(), anyInt()))
@@ -115,6 +173,79 @@ public class BookingControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getAllBookingsWithCursorTest() throws Exception {
+        when(bookingService.scrollUserBookings(anyLong(), eq(BookingState.ALL), eq(""), eq(1)))
+                .thenReturn(Window.from(List.of(bookingDto), index -> ScrollPosition.forward(
+                        Map.of("start", startTime, "id", bookingDto.getId())), true));
+        mvc.perform(get("/bookings")
+                        .header(headerSharerUserId, 1)
+                        .param("state", "ALL")
+                        .param("size", "1")
+                        .param("cursor", "")
+                )
+                .andExpect(jsonPath("$[0].id", is(bookingDto.getId()), Long.class))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().exists(Cursor.NEXT_CURSOR_HEADER))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getAllBookingsWithoutPaginationReturnsCappedFirstPageTest() throws Exception {
+        when(bookingService.scrollUserBookings(anyLong(), eq(BookingState.ALL), isNull(), eq(1000)))
+                .thenReturn(Window.from(List.of(bookingDto), index -> ScrollPosition.forward(
+                        Map.of("start", startTime, "id", bookingDto.getId())), true));
+        mvc.perform(get("/bookings")
+                        .header(headerSharerUserId, 1)
+                )
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().exists(Cursor.NEXT_CURSOR_HEADER))
+                .andExpect(status().isOk());
+
+        assertEquals(1.0, meterRegistry.counter(ResultSizeGovernor.CAPPED_METRIC,
+                "endpoint", "bookings", "reason", "unbounded").count());
+    }
+
+    @Test
+    void followCursorFromUnboundedFirstPageKeepsCappedSizeTest() throws Exception {
+        Window<BookingDto> page = Window.from(List.of(bookingDto), index -> ScrollPosition.forward(
+                Map.of("start", startTime, "id", bookingDto.getId())), true);
+        when(bookingService.scrollUserBookings(anyLong(), eq(BookingState.ALL), isNull(), eq(1000)))
+                .thenReturn(page);
+        when(bookingService.scrollUserBookings(anyLong(), eq(BookingState.ALL), eq(Cursor.encode(page)), eq(1000)))
+                .thenReturn(Window.from(List.of(bookingDto), index -> ScrollPosition.forward(
+                        Map.of("start", startTime, "id", bookingDto.getId())), false));
+
+        String next = mvc.perform(get("/bookings")
+                        .header(headerSharerUserId, 1)
+                )
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(Cursor.NEXT_CURSOR_HEADER);
+        mvc.perform(get("/bookings")
+                        .header(headerSharerUserId, 1)
+                        .param("cursor", next)
+                )
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().doesNotExist(Cursor.NEXT_CURSOR_HEADER))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getAllOwnerBookingsWithOversizedPageTest() throws Exception {
+        when(bookingService.findAllOwnerBookings(anyLong(), eq(BookingState.ALL), eq(0), eq(1000)))
+                .thenReturn(List.of(bookingDto));
+        mvc.perform(get("/bookings/owner")
+                        .header(headerSharerUserId, 1)
+                        .param("from", "0")
+                        .param("size", "5000")
+                )
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(status().isOk());
+
+        assertEquals(1.0, meterRegistry.counter(ResultSizeGovernor.CAPPED_METRIC,
+                "endpoint", "bookings-owner", "reason", "oversized").count());
+    }
+
     @Test
     void saveTest() throws Exception {
         when(bookingService.create(any(), any()))
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.advice.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingAvailabilityCacheTest {
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 10, 0, 0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private BookingAvailabilityCache cache;
+    private Item item;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        cache = new BookingAvailabilityCache(bookingRepository, new BookingLocks(4), 2);
+        User owner = new User(1L, "Owner", "owner@mail.com", 0L);
+        booker = new User(2L, "Booker", "booker@mail.com", 0L);
+        item = new Item(1L, "Drill", "Electric", true, owner, null, 0L);
+    }
+
+    @Test
+    void testHasOverlap() {
+        when(approvedBookings(bookingRepository, 1L))
+                .thenReturn(List.of(booking(DAY.plusDays(5), DAY.plusDays(6)),
+                        booking(DAY, DAY.plusDays(2))));
+
+        assertTrue(cache.hasOverlap(1L, DAY.plusDays(1), DAY.plusDays(3)));
+        assertTrue(cache.hasOverlap(1L, DAY.plusDays(2), DAY.plusDays(3)));
+        assertTrue(cache.hasOverlap(1L, DAY.plusDays(4), DAY.plusDays(5)));
+        assertFalse(cache.hasOverlap(1L, DAY.plusDays(3), DAY.plusDays(4)));
+        assertFalse(cache.hasOverlap(1L, DAY.plusDays(7), DAY.plusDays(8)));
+        approvedBookings(verify(bookingRepository, times(1)), 1L);
+    }
+
+    @Test
+    void testHasOverlapWithNestedIntervals() {
+        when(approvedBookings(bookingRepository, 1L))
+                .thenReturn(List.of(booking(DAY, DAY.plusDays(10)), booking(DAY.plusDays(1), DAY.plusDays(2))));
+
+        assertTrue(cache.hasOverlap(1L, DAY.plusDays(5), DAY.plusDays(6)));
+    }
+
+    @Test
+    void testApprovedAndUnapprovedUpdateLoadedItem() {
+        when(approvedBookings(bookingRepository, 1L)).thenReturn(List.of());
+        Booking booking = booking(DAY, DAY.plusDays(1));
+
+        assertFalse(cache.hasOverlap(1L, DAY, DAY.plusDays(1)));
+        cache.approved(booking);
+        assertTrue(cache.hasOverlap(1L, DAY, DAY.plusDays(1)));
+        cache.unapproved(booking);
+        assertFalse(cache.hasOverlap(1L, DAY, DAY.plusDays(1)));
+        approvedBookings(verify(bookingRepository, times(1)), 1L);
+    }
+
+    @Test
+    void testFindNextFreeSlot() {
+        when(approvedBookings(bookingRepository, 1L))
+                .thenReturn(List.of(booking(DAY, DAY.plusDays(1)),
+                        booking(DAY.plusDays(1).plusHours(2), DAY.plusDays(2)),
+                        booking(DAY.plusDays(4), DAY.plusDays(5))));
+
+        LocalDateTime afterSecond = DAY.plusDays(2).plusNanos(1000);
+        assertEquals(afterSecond, cache.findNextFreeSlot(1L, DAY.plusHours(3), Duration.ofHours(3)));
+        assertEquals(DAY.plusDays(1).plusNanos(1000),
+                cache.findNextFreeSlot(1L, DAY.plusHours(3), Duration.ofHours(1)));
+        assertEquals(DAY.plusDays(6), cache.findNextFreeSlot(1L, DAY.plusDays(6), Duration.ofDays(1)));
+    }
+
+    @Test
+    void testPreloadLoadsMissingItemsInOneQuery() {
+        Item other = new Item(2L, "Saw", "Manual", true, item.getOwner(), null, 0L);
+        when(approvedBookings(bookingRepository, 1L)).thenReturn(List.of());
+        when(bookingRepository.findAllByItem_IdInAndStatusAndEndTimeGreaterThanEqual(eq(List.of(2L, 3L)),
+                eq(BookingStatus.APPROVED), any()))
+                .thenReturn(List.of(new Booking(null, DAY, DAY.plusDays(1), other, booker, BookingStatus.APPROVED, 0L)));
+        cache.hasOverlap(1L, DAY, DAY.plusDays(1));
+
+        cache.preload(List.of(1L, 2L, 3L, 2L));
+
+        assertTrue(cache.hasOverlap(2L, DAY, DAY.plusDays(1)));
+        assertFalse(cache.hasOverlap(3L, DAY, DAY.plusDays(1)));
+        approvedBookings(verify(bookingRepository, times(1)), 1L);
+        approvedBookings(verify(bookingRepository, never()), 2L);
+        approvedBookings(verify(bookingRepository, never()), 3L);
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedItems() {
+        when(bookingRepository.findAllByItem_IdAndStatusAndEndTimeGreaterThanEqual(anyLong(),
+                eq(BookingStatus.APPROVED), any()))
+                .thenReturn(List.of());
+
+        cache.hasOverlap(1L, DAY, DAY.plusDays(1));
+        cache.hasOverlap(2L, DAY, DAY.plusDays(1));
+        cache.hasOverlap(1L, DAY, DAY.plusDays(1));
+        cache.hasOverlap(3L, DAY, DAY.plusDays(1));
+        cache.hasOverlap(1L, DAY, DAY.plusDays(1));
+        cache.hasOverlap(2L, DAY, DAY.plusDays(1));
+
+        approvedBookings(verify(bookingRepository, times(1)), 1L);
+        approvedBookings(verify(bookingRepository, times(2)), 2L);
+    }
+
+    private static Collection<Booking> approvedBookings(BookingRepository repository, long itemId) {
+        return repository.findAllByItem_IdAndStatusAndEndTimeGreaterThanEqual(eq(itemId), eq(BookingStatus.APPROVED),
+                any());
+    }
+
+    private Booking booking(LocalDateTime start, LocalDateTime end) {
+        return new Booking(null, start, end, item, booker, BookingStatus.APPROVED, 0L);
+    }
+}
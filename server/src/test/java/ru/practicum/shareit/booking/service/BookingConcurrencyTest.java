@@ -0,0 +1,142 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.advice.enums.BookingStatus;
+import ru.practicum.shareit.advice.exception.ItemUnavailableException;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingConcurrencyTest {
+    private static final int THREADS = 16;
+    private static final int BOOKINGS = 1000;
+
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final UserService userService;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private UserDto owner;
+    private UserDto booker;
+    private ItemDto item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.create(new UserDto(null, "Owner", "concurrency-owner@mail.com"));
+        booker = userService.create(new UserDto(null, "Booker", "concurrency-booker@mail.com"));
+        item = itemService.create(new ItemDto(null, "Item", "about", true, null), owner.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll(bookingRepository.findAll().stream()
+                .filter(booking -> booking.getItem().getId().equals(item.getId()))
+                .toList());
+        itemRepository.deleteById(item.getId());
+        userRepository.deleteById(booker.getId());
+        userRepository.deleteById(owner.getId());
+    }
+
+    @Test
+    void testConcurrentApprovalsNeverDoubleBook() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Callable<BookingDto>> creations = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDateTime bookingStart = start.plusHours(i % 24);
+            creations.add(() -> bookingService.create(booker.getId(),
+                    new BookingCreateDto(null, bookingStart, bookingStart.plusDays(1), item.getId())));
+        }
+        List<BookingDto> created = runAll(creations).stream()
+                .map(BookingConcurrencyTest::getResult)
+                .toList();
+        assertEquals(BOOKINGS, created.size());
+
+        List<Callable<BookingDto>> approvals = created.stream()
+                .<Callable<BookingDto>>map(booking -> () -> bookingService.update(owner.getId(),
+                        booking.getId(), true))
+                .toList();
+        int approved = 0;
+        int rejected = 0;
+        for (Future<BookingDto> result : runAll(approvals)) {
+            try {
+                result.get();
+                approved++;
+            } catch (Exception e) {
+                assertInstanceOf(ItemUnavailableException.class, e.getCause());
+                rejected++;
+            }
+        }
+
+        assertEquals(1, approved);
+        assertEquals(BOOKINGS - 1, rejected);
+        Collection<Booking> approvedBookings = bookingRepository.findAll().stream()
+                .filter(booking -> booking.getItem().getId().equals(item.getId()))
+                .filter(booking -> booking.getStatus() == BookingStatus.APPROVED)
+                .toList();
+        assertEquals(1, approvedBookings.size());
+    }
+
+    @Test
+    void testConcurrentApprovalsOfSameBookingAllSucceed() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto booking = bookingService.create(booker.getId(),
+                new BookingCreateDto(null, start, start.plusDays(1), item.getId()));
+
+        List<Callable<BookingDto>> approvals = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            approvals.add(() -> bookingService.update(owner.getId(), booking.getId(), true));
+        }
+        for (Future<BookingDto> result : runAll(approvals)) {
+            assertEquals(BookingStatus.APPROVED, result.get().getStatus());
+        }
+
+        bookingService.update(owner.getId(), booking.getId(), false);
+        assertEquals(BookingStatus.REJECTED, bookingRepository.findById(booking.getId()).orElseThrow().getStatus());
+        BookingDto next = bookingService.create(booker.getId(),
+                new BookingCreateDto(null, start, start.plusDays(1), item.getId()));
+        assertEquals(BookingStatus.APPROVED, bookingService.update(owner.getId(), next.getId(), true).getStatus());
+    }
+
+    private static <T> List<Future<T>> runAll(List<Callable<T>> tasks) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            return executor.invokeAll(tasks);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static <T> T getResult(Future<T> future) {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
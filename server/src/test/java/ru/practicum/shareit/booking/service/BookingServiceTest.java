@@ -2,13 +2,19 @@ package ru.practicum.shareit.booking.service;
 
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ValidationException;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Window;
+import ru.practicum.shareit.advice.Cursor;
 import ru.practicum.shareit.advice.enums.BookingState;
 import ru.practicum.shareit.advice.enums.BookingStatus;
+import ru.practicum.shareit.advice.exception.EntityNotFoundException;
 import ru.practicum.shareit.advice.exception.ItemUnavailableException;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
@@ -17,8 +23,13 @@ import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -72,6 +83,51 @@ public class BookingServiceTest {
         assertEquals(bookingDto.getId(), bookings.iterator().next().getId());
     }
 
+    @Test
+    void getAllBookingsPagesAreOrderedByStartDescTest() {
+        BookingDto later = bookingService.create(booker.getId(), new BookingCreateDto(null,
+                bookingCreateDto.getStart().plusDays(10), bookingCreateDto.getEnd().plusDays(10), item.getId()));
+        BookingDto earlier = bookingService.create(booker.getId(), new BookingCreateDto(null,
+                bookingCreateDto.getStart().minusDays(10), bookingCreateDto.getEnd().minusDays(10), item.getId()));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Long> firstPage = bookingService.findAllUserBookings(booker.getId(), BookingState.ALL, 0, 2)
+                .stream().map(BookingDto::getId).toList();
+        List<Long> secondPage = bookingService.findAllOwnerBookings(userOwner.getId(), BookingState.ALL, 2, 2)
+                .stream().map(BookingDto::getId).toList();
+
+        assertEquals(List.of(later.getId(), bookingDto.getId()), firstPage);
+        assertEquals(List.of(earlier.getId()), secondPage);
+    }
+
+    @Test
+    void scrollUserBookingsFollowsCursorTest() {
+        BookingDto later = bookingService.create(booker.getId(), new BookingCreateDto(null,
+                bookingCreateDto.getStart().plusDays(10), bookingCreateDto.getEnd().plusDays(10), item.getId()));
+        BookingDto earlier = bookingService.create(booker.getId(), new BookingCreateDto(null,
+                bookingCreateDto.getStart().minusDays(10), bookingCreateDto.getEnd().minusDays(10), item.getId()));
+        entityManager.flush();
+        entityManager.clear();
+
+        Window<BookingDto> firstPage = bookingService.scrollUserBookings(booker.getId(), BookingState.ALL, "", 2);
+        String nextCursor = Cursor.encode(firstPage);
+        Window<BookingDto> secondPage = bookingService.scrollOwnerBookings(userOwner.getId(), BookingState.ALL,
+                nextCursor, 2);
+
+        assertEquals(List.of(later.getId(), bookingDto.getId()),
+                firstPage.stream().map(BookingDto::getId).toList());
+        assertNotNull(nextCursor);
+        assertEquals(List.of(earlier.getId()), secondPage.stream().map(BookingDto::getId).toList());
+        assertNull(Cursor.encode(secondPage));
+    }
+
+    @Test
+    void scrollUserBookingsWithInvalidCursorTest() {
+        assertThrows(ValidationException.class,
+                () -> bookingService.scrollUserBookings(booker.getId(), BookingState.ALL, "not-a-cursor", 2));
+    }
+
     @Test
     void getBookingsByOwnerIdTest() {
         Collection<BookingDto> bookings = bookingService.findAllOwnerBookings(userOwner.getId(), BookingState.WAITING,
@@ -122,4 +178,72 @@ public class BookingServiceTest {
                 "Предмет с ID_1 недоступен для бронирования"
         );
     }
+
+    @Test
+    void testCreateAllBookingsInBatches() {
+        ItemDto otherItem = itemService.create(new ItemDto(null, "Other", "about", true, null),
+                userOwner.getId());
+        entityManager.flush();
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        List<BookingCreateDto> bookings = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Long itemId = i % 2 == 0 ? item.getId() : otherItem.getId();
+            bookings.add(new BookingCreateDto(null, start.plusDays(i), start.plusDays(i).plusHours(1), itemId));
+        }
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        Collection<BookingDto> created = bookingService.createAll(booker.getId(), bookings);
+        entityManager.flush();
+
+        assertEquals(200, created.size());
+        assertTrue(created.stream().allMatch(booking -> booking.getId() != null
+                && booking.getStatus() == BookingStatus.WAITING));
+        assertEquals(200, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() < 30);
+        assertEquals(201, bookingService.findAllUserBookings(booker.getId(), BookingState.ALL, null, null)
+                .size());
+    }
+
+    @Test
+    void testCreateAllBookingsRejectsInvalidBatch() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        BookingCreateDto valid = new BookingCreateDto(null, start, start.plusDays(1), item.getId());
+
+        assertThrows(ValidationException.class, () -> bookingService.createAll(booker.getId(), List.of()));
+        assertThrows(EntityNotFoundException.class, () -> bookingService.createAll(booker.getId(),
+                List.of(valid, new BookingCreateDto(null, start, start.plusDays(1), 999L))));
+        assertThrows(ItemUnavailableException.class, () -> bookingService.createAll(userOwner.getId(),
+                List.of(valid)));
+
+        BookingDto approved = bookingService.create(booker.getId(), valid);
+        entityManager.flush();
+        entityManager.clear();
+        bookingService.update(userOwner.getId(), approved.getId(), true);
+        assertThrows(ItemUnavailableException.class, () -> bookingService.createAll(booker.getId(),
+                List.of(new BookingCreateDto(null, start.plusHours(1), start.plusHours(2), item.getId()))));
+    }
+
+    @Test
+    void testExportUserAndOwnerBookings() throws IOException {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        bookingService.create(booker.getId(), new BookingCreateDto(null, start, start.plusDays(1), item.getId()));
+        entityManager.flush();
+        entityManager.clear();
+
+        ByteArrayOutputStream userExport = new ByteArrayOutputStream();
+        bookingService.exportUserBookings(booker.getId(), userExport);
+        ByteArrayOutputStream ownerExport = new ByteArrayOutputStream();
+        bookingService.exportOwnerBookings(userOwner.getId(), ownerExport);
+
+        String[] userLines = userExport.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, userLines.length);
+        assertTrue(userLines[0].contains("\"start\":\"2030-01-01T10:00:00\""));
+        assertTrue(userLines[1].contains("\"id\":" + bookingDto.getId()));
+        assertEquals(userExport.toString(StandardCharsets.UTF_8), ownerExport.toString(StandardCharsets.UTF_8));
+        assertThrows(EntityNotFoundException.class,
+                () -> bookingService.exportOwnerBookings(999L, new ByteArrayOutputStream()));
+    }
 }
@@ -5,8 +5,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.advice.NdjsonWriter;
 import ru.practicum.shareit.advice.enums.BookingState;
 import ru.practicum.shareit.advice.enums.BookingStatus;
 import ru.practicum.shareit.advice.exception.AccessDeniedException;
@@ -20,6 +22,8 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
@@ -39,6 +43,8 @@ public class BookingServiceUnitTest {
     private ItemRepository itemRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private NdjsonWriter ndjsonWriter;
     private BookingService bookingService;
 
     private User owner;
@@ -49,24 +55,28 @@ public class BookingServiceUnitTest {
 
     @BeforeEach
     void setUp() {
-        bookingService = new BookingService(bookingRepository, userRepository, itemRepository);
-        owner = new User(1L, "Owner", "owner@mail.com");
-        booker = new User(2L, "Booker", "booker@mail.com");
-        item = new Item(1L, "Drill", "Electric", true, owner, null);
+        BookingLocks bookingLocks = new BookingLocks(1);
+        bookingService = new BookingService(bookingRepository,
+                new UserExistenceIndex(userRepository, new SimpleMeterRegistry(), 100, 0.01, 100), itemRepository, bookingLocks,
+                new BookingAvailabilityCache(bookingRepository, bookingLocks, 100), ndjsonWriter, 100);
+        owner = new User(1L, "Owner", "owner@mail.com", 0L);
+        booker = new User(2L, "Booker", "booker@mail.com", 0L);
+        item = new Item(1L, "Drill", "Electric", true, owner, null, 0L);
 
         LocalDateTime start = LocalDateTime.of(2025, 6, 11, 10, 0);
         LocalDateTime end = start.plusDays(1);
         bookingCreateDto = new BookingCreateDto(null, start, end, item.getId());
 
-        booking = new Booking(1L, start, end, item, booker, BookingStatus.WAITING);
+        booking = new Booking(1L, start, end, item, booker, BookingStatus.WAITING, 0L);
     }
 
     @Test
     void testCreateBooking_Success() {
-        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(userRepository.existsById(booker.getId())).thenReturn(true);
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
-        when(bookingRepository.hasOverlappingBooking(eq(item.getId()), eq(BookingStatus.APPROVED),
-                any(), any())).thenReturn(false);
+        when(bookingRepository.findAllByItem_IdAndStatusAndEndTimeGreaterThanEqual(eq(item.getId()),
+                eq(BookingStatus.APPROVED), any()))
+                .thenReturn(List.of());
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
 
         BookingDto result = bookingService.create(booker.getId(), bookingCreateDto);
@@ -91,7 +101,7 @@ public class BookingServiceUnitTest {
 
     @Test
     void testGetBookingsByOwnerIdStatus_Success() {
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(owner.getId())).thenReturn(true);
         when(bookingRepository.findAllByItem_Owner_IdAndStatus(eq(owner.getId()),
                 eq(BookingStatus.WAITING), any(Pageable.class)))
                 .thenReturn(new PageImpl<>(List.of(booking)));
@@ -128,7 +138,7 @@ public class BookingServiceUnitTest {
 
     @Test
     void testOwnerCannotBookOwnItem() {
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(owner.getId())).thenReturn(true);
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
 
 
@@ -139,7 +149,7 @@ public class BookingServiceUnitTest {
 
     @Test
     void testCreateBooking_UserNotFound() {
-        when(userRepository.findById(booker.getId())).thenReturn(Optional.empty());
+        when(userRepository.existsById(booker.getId())).thenReturn(false);
 
         assertThrows(EntityNotFoundException.class, () -> bookingService.create(booker.getId(), bookingCreateDto));
         verify(bookingRepository, never()).save(any(Booking.class));
@@ -147,7 +157,7 @@ public class BookingServiceUnitTest {
 
     @Test
     void testCreateBooking_ItemNotFound() {
-        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(userRepository.existsById(booker.getId())).thenReturn(true);
         when(itemRepository.findById(item.getId())).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class, () -> bookingService.create(booker.getId(), bookingCreateDto));
@@ -156,12 +166,38 @@ public class BookingServiceUnitTest {
 
     @Test
     void testUpdateBooking_AccessDenied() {
+        when(bookingRepository.findItemIdById(booking.getId())).thenReturn(Optional.of(item.getId()));
         when(bookingRepository.findBookingWithGraphById(booking.getId())).thenReturn(Optional.of(booking));
 
         assertThrows(AccessDeniedException.class, () -> bookingService.update(booker.getId(),
                 booking.getId(), true));
     }
 
+    @Test
+    void testApproveBooking_Overlapping() {
+        when(bookingRepository.findItemIdById(booking.getId())).thenReturn(Optional.of(item.getId()));
+        when(bookingRepository.findBookingWithGraphById(booking.getId())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findAllByItem_IdAndStatusAndEndTimeGreaterThanEqual(eq(item.getId()),
+                eq(BookingStatus.APPROVED), any()))
+                .thenReturn(List.of(new Booking(2L, booking.getStart().minusHours(1), booking.getStart(), item,
+                        booker, BookingStatus.APPROVED, 0L)));
+
+        ItemUnavailableException e = assertThrows(ItemUnavailableException.class,
+                () -> bookingService.update(owner.getId(), booking.getId(), true));
+        assertTrue(e.getMessage().endsWith(booking.getStart().plusNanos(1000).toString()));
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void testApproveBooking_ExclusionConstraintViolated() {
+        when(bookingRepository.findItemIdById(booking.getId())).thenReturn(Optional.of(item.getId()));
+        when(bookingRepository.findBookingWithGraphById(booking.getId())).thenReturn(Optional.of(booking));
+        when(bookingRepository.save(booking)).thenThrow(new DataIntegrityViolationException("overlap"));
+
+        assertThrows(ItemUnavailableException.class, () -> bookingService.update(owner.getId(),
+                booking.getId(), true));
+    }
+
     @Test
     void testPagination() {
         when(bookingRepository.findAllByBooker_IdAndStatus(eq(booker.getId()), eq(BookingStatus.WAITING), any(Pageable.class)))
@@ -238,7 +274,7 @@ public class BookingServiceUnitTest {
 
     @Test
     void testGetBookingsByOwnerIdStateAll() {
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(owner.getId())).thenReturn(true);
         when(bookingRepository.findAllByItem_Owner_Id(eq(owner.getId()), any(Pageable.class)))
                 .thenReturn(new PageImpl<>(List.of(booking)));
 
@@ -251,7 +287,7 @@ public class BookingServiceUnitTest {
 
     @Test
     void testGetBookingsByOwnerIdStateCurrent() {
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(owner.getId())).thenReturn(true);
         when(bookingRepository.findAllByItem_Owner_IdAndStatusAndStartBeforeAndEndTimeAfter(eq(owner.getId()),
                 eq(BookingStatus.APPROVED), any(LocalDateTime.class), any(LocalDateTime.class),
                 any(Pageable.class)))
@@ -265,7 +301,7 @@ public class BookingServiceUnitTest {
 
     @Test
     void testGetBookingsByOwnerIdStatePast() {
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(owner.getId())).thenReturn(true);
         when(bookingRepository.findAllByItem_Owner_IdAndStatusAndEndTimeBefore(eq(owner.getId()),
                 eq(BookingStatus.APPROVED), any(LocalDateTime.class), any(Pageable.class)))
                 .thenReturn(new PageImpl<>(List.of()));
@@ -278,7 +314,7 @@ public class BookingServiceUnitTest {
 
     @Test
     void testGetBookingsByOwnerIdStateFuture() {
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(owner.getId())).thenReturn(true);
         when(bookingRepository.findAllByItem_Owner_IdAndStatusAndStartAfter(eq(owner.getId()),
                 eq(BookingStatus.APPROVED), any(LocalDateTime.class), any(Pageable.class)))
                 .thenReturn(new PageImpl<>(List.of()));
@@ -291,7 +327,7 @@ public class BookingServiceUnitTest {
 
     @Test
     void testGetBookingsByOwnerIdStateRejected() {
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(owner.getId())).thenReturn(true);
         when(bookingRepository.findAllByItem_Owner_IdAndStatus(eq(owner.getId()),
                 eq(BookingStatus.REJECTED), any(Pageable.class)))
                 .thenReturn(new PageImpl<>(List.of()));
@@ -305,7 +341,7 @@ public class BookingServiceUnitTest {
     @Test
     void testCreateBooking_ItemUnavailable() {
         item.setAvailable(false);
-        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(userRepository.existsById(booker.getId())).thenReturn(true);
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
 
         assertThrows(ItemUnavailableException.class, () ->
@@ -314,7 +350,7 @@ public class BookingServiceUnitTest {
 
     @Test
     void testUpdateBookingNotFound() {
-        when(bookingRepository.findBookingWithGraphById(anyLong()))
+        when(bookingRepository.findItemIdById(anyLong()))
                 .thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class, () ->
@@ -341,8 +377,8 @@ public class BookingServiceUnitTest {
 
     @Test
     void testFindAllBookingsOwnerNotFound() {
-        when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.empty());
+        when(userRepository.existsById(anyLong()))
+                .thenReturn(false);
 
         assertThrows(EntityNotFoundException.class, () ->
                 bookingService.findAllOwnerBookings(99L, BookingState.ALL,
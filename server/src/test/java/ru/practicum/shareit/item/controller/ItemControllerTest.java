@@ -1,13 +1,21 @@
 package ru.practicum.shareit.item.controller;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.advice.ResultSizeGovernor;
+import ru.practicum.shareit.advice.Tagged;
 import ru.practicum.shareit.advice.exception.AccessDeniedException;
 import ru.practicum.shareit.advice.exception.CommentCreationException;
 import ru.practicum.shareit.advice.exception.EntityNotFoundException;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.ItemAllFieldsDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.advice.enums.SlotStatus;
+import ru.practicum.shareit.item.service.ItemImportService;
 import ru.practicum.shareit.item.service.ItemService;
 import org.springframework.test.web.servlet.MockMvc;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -15,6 +23,10 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import org.junit.jupiter.api.Test;
 
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -25,18 +37,27 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.hamcrest.Matchers.hasSize;
 import static java.time.LocalDateTime.*;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static java.util.List.*;
 
+import java.io.OutputStream;
 import java.util.List;
 
 @WebMvcTest(controllers = ItemController.class)
+@Import({ResultSizeGovernor.class, SimpleMeterRegistry.class})
 public class ItemControllerTest {
     private final String headerSharerUserId = "X-Sharer-User-Id";
     @MockBean
     ItemRequestService itemRequestService;
     @MockBean
     ItemService itemService;
+    @MockBean
+    ItemImportService itemImportService;
     @Autowired
     ObjectMapper mapper;
     @Autowired
@@ -126,8 +147,8 @@ public class ItemControllerTest {
 
     @Test
     void getItemTest() throws Exception {
-        when(itemService.find(anyLong(), anyLong()))
-                .thenReturn(itemExtendedDto);
+        when(itemService.findTagged(anyLong(), anyLong()))
+                .thenReturn(new Tagged<>(itemExtendedDto, "\"3-1.5.2\""));
         mvc.perform(get("/items/{itemId}", 1)
                         .header(headerSharerUserId, 1)
                 )
@@ -135,6 +156,29 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.id", is(itemExtendedDto.getId()), Long.class))
                 .andExpect(jsonPath("$.name", is(itemExtendedDto.getName())))
                 .andExpect(status().isOk());
+        verify(itemService, never()).findTag(anyLong(), anyLong());
+    }
+
+    @Test
+    void getItemEtagTest() throws Exception {
+        when(itemService.findTag(anyLong(), anyLong()))
+                .thenReturn("\"3-1.5.2\"");
+        when(itemService.findTagged(anyLong(), anyLong()))
+                .thenReturn(new Tagged<>(itemExtendedDto, "\"3-1.5.2\""));
+        mvc.perform(get("/items/{itemId}", 1)
+                        .header(headerSharerUserId, 1)
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string(ETAG, "\"3-1.5.2\""));
+
+        mvc.perform(get("/items/{itemId}", 1)
+                        .header(headerSharerUserId, 1)
+                        .header(IF_NONE_MATCH, "\"3-1.5.2\"")
+                )
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(itemService, times(1)).findTag(anyLong(), anyLong());
+        verify(itemService, times(1)).findTagged(anyLong(), anyLong());
     }
 
     @Test
@@ -204,7 +248,7 @@ public class ItemControllerTest {
 
     @Test
     void getNotFoundExceptionTest() throws Exception {
-        when(itemService.find(any(), anyLong()))
+        when(itemService.findTagged(any(), anyLong()))
                 .thenThrow(EntityNotFoundException.class);
         mvc.perform(get("/items/{itemId}", 1)
                         .header(headerSharerUserId, 1)
@@ -239,4 +283,51 @@ public class ItemControllerTest {
                 )
                 .andExpect(status().isForbidden());
     }
+
+    @Test
+    void getAvailabilityTest() throws Exception {
+        ItemAvailabilityDto availability = new ItemAvailabilityDto(1L,
+                of(2030, 1, 1, 0, 0), of(2030, 1, 2, 0, 0),
+                List.of(new AvailabilitySlotDto(of(2030, 1, 1, 0, 0), of(2030, 1, 2, 0, 0), SlotStatus.FREE)));
+        when(itemService.findAvailability(1L, 1L, of(2030, 1, 1, 0, 0), of(2030, 1, 2, 0, 0)))
+                .thenReturn(availability);
+        mvc.perform(get("/items/{itemId}/availability", 1)
+                        .header(headerSharerUserId, 1)
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-02T00:00:00")
+                        .accept(APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.slots", hasSize(1)))
+                .andExpect(jsonPath("$.slots[0].status", is("FREE")));
+    }
+
+    @Test
+    void importItemsTest() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(2).write("{\"line\":1,\"id\":1}\n".getBytes(UTF_8));
+            return null;
+        }).when(itemImportService).importItems(eq(1L), any(), any());
+        mvc.perform(post("/items/import")
+                        .header(headerSharerUserId, 1)
+                        .content(mapper.writeValueAsString(itemDto))
+                        .contentType(APPLICATION_NDJSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(APPLICATION_NDJSON))
+                .andExpect(jsonPath("$.id", is(1)));
+    }
+
+    @Test
+    void importItemsForUnknownUserTest() throws Exception {
+        doThrow(new EntityNotFoundException("Пользователь", 1L))
+                .when(itemImportService).checkOwner(1L);
+        mvc.perform(post("/items/import")
+                        .header(headerSharerUserId, 1)
+                        .content(mapper.writeValueAsString(List.of(itemDto)))
+                        .contentType(APPLICATION_JSON)
+                        .accept(APPLICATION_JSON)
+                )
+                .andExpect(status().isNotFound());
+    }
 }
@@ -0,0 +1,127 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.advice.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ItemImportServiceTest {
+    private final ItemImportService itemImportService;
+    private final ItemService itemService;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private UserDto owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.create(new UserDto(null, "Owner", "import-owner@mail.com"));
+    }
+
+    @Test
+    void testImportNdjsonReportsEveryLine() throws IOException {
+        String body = """
+                {"name": "Дрель", "description": "Ударная", "available": true}
+                {"name": "", "description": "Без названия", "available": true}
+                {"name": "Пила", "description": "Ручная", "available": true, "requestId": 999}
+                {"name": "Молоток", "description": "Стальной", "available": false}
+                """;
+
+        List<ItemImportResultDto> results = importItems(body);
+
+        assertEquals(4, results.size());
+        assertNotNull(results.get(0).getId());
+        assertEquals("Название вещи не может быть пустым", results.get(1).getError());
+        assertEquals("Запрос вещи с ID_999 не найден", results.get(2).getError());
+        assertNotNull(results.get(3).getId());
+        assertEquals(List.of(1, 2, 3, 4), results.stream().map(ItemImportResultDto::getLine).toList());
+        assertEquals(2, itemService.findAll(owner.getId(), null, null).size());
+    }
+
+    @Test
+    void testImportJsonArrayAcrossBatches() throws IOException {
+        List<ItemDto> items = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            items.add(new ItemDto(null, "Item " + i, "about", true, null));
+        }
+
+        List<ItemImportResultDto> results = importItems(objectMapper.writeValueAsString(items));
+
+        assertEquals(120, results.size());
+        assertTrue(results.stream().allMatch(result -> result.getId() != null && result.getError() == null));
+        assertEquals(120, itemService.findAll(owner.getId(), null, null).size());
+    }
+
+    @Test
+    void testImportDetachesEachBatch() throws IOException {
+        List<ItemDto> items = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            items.add(new ItemDto(null, "Item " + i, "about", true, null));
+        }
+        int managedBefore = managedEntities();
+
+        List<ItemImportResultDto> results = importItems(objectMapper.writeValueAsString(items));
+
+        assertEquals(120, results.size());
+        assertEquals(managedBefore, managedEntities());
+    }
+
+    @Test
+    void testImportStopsOnMalformedJson() throws IOException {
+        String body = """
+                {"name": "Дрель", "description": "Ударная", "available": true}
+                {"name": "Пила", "description":
+                """;
+
+        List<ItemImportResultDto> results = importItems(body);
+
+        assertEquals(2, results.size());
+        assertNotNull(results.get(0).getId());
+        assertEquals(2, results.get(1).getLine());
+        assertTrue(results.get(1).getError().startsWith("Некорректный JSON"));
+    }
+
+    @Test
+    void testImportForUnknownUser() {
+        assertThrows(EntityNotFoundException.class, () -> itemImportService.importItems(999L,
+                new ByteArrayInputStream(new byte[0]), new ByteArrayOutputStream()));
+    }
+
+    private int managedEntities() {
+        return entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+    }
+
+    private List<ItemImportResultDto> importItems(String body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        itemImportService.importItems(owner.getId(),
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out);
+
+        List<ItemImportResultDto> results = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            results.add(objectMapper.readValue(line, ItemImportResultDto.class));
+        }
+        return results;
+    }
+}
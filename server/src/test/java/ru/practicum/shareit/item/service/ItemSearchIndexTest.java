@@ -0,0 +1,98 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemSearchIndexTest {
+    @Mock
+    private ItemRepository itemRepository;
+
+    private ItemSearchIndex index;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemSearchIndex(itemRepository, "index");
+        owner = new User(1L, "Owner", "owner@mail.com", 0L);
+    }
+
+    @Test
+    void testSearchByTokenPrefix() {
+        index.add(new Item(1L, "Дрель ударная", "Мощная", true, owner, null, 0L));
+        index.add(new Item(2L, "Отвертка", "Аккумуляторная", true, owner, null, 0L));
+
+        ItemSearchIndex.Result result = index.search("дрел");
+
+        assertEquals(List.of(1L), result.ids(0, 10));
+    }
+
+    @Test
+    void testSearchRanksNameMatchesFirst() {
+        index.add(new Item(1L, "Набор", "Дрель и биты", true, owner, null, 0L));
+        index.add(new Item(2L, "Дрель", "Ударная", true, owner, null, 0L));
+
+        ItemSearchIndex.Result result = index.search("ДРЕЛЬ");
+
+        assertEquals(List.of(2L, 1L), result.ids(0, 10));
+        assertEquals(0, result.rank(0));
+        assertEquals(1, result.rank(1));
+        assertEquals(1, result.positionAfter(0, 2L));
+    }
+
+    @Test
+    void testSearchSkipsUnavailableItems() {
+        index.add(new Item(1L, "Дрель", "Мощная", false, owner, null, 0L));
+        index.add(new Item(2L, "Дрель", "Легкая", true, owner, null, 0L));
+
+        assertEquals(List.of(2L), index.search("дрель").ids(0, 10));
+    }
+
+    @Test
+    void testSearchRequiresAllTokens() {
+        index.add(new Item(1L, "Дрель ударная", "Мощная", true, owner, null, 0L));
+        index.add(new Item(2L, "Дрель", "Легкая", true, owner, null, 0L));
+
+        assertEquals(List.of(1L), index.search("дрель мощ").ids(0, 10));
+    }
+
+    @Test
+    void testUpdateReplacesTokensAndAvailability() {
+        Item item = new Item(1L, "Дрель", "Мощная", true, owner, null, 0L);
+        index.add(item);
+
+        item.setName("Перфоратор");
+        item.setAvailable(false);
+        index.update("Дрель", "Мощная", item);
+
+        assertEquals(0, index.search("дрель").size());
+        assertEquals(0, index.search("перфоратор").size());
+
+        item.setAvailable(true);
+        index.update("Перфоратор", "Мощная", item);
+
+        assertEquals(List.of(1L), index.search("перфоратор").ids(0, 10));
+    }
+
+    @Test
+    void testDisabledIndexIgnoresChanges() {
+        ItemSearchIndex disabled = new ItemSearchIndex(itemRepository, "database");
+        disabled.add(new Item(1L, "Дрель", "Мощная", true, owner, null, 0L));
+        disabled.build();
+
+        assertFalse(disabled.isEnabled());
+        assertEquals(0, disabled.search("дрель").size());
+        verifyNoInteractions(itemRepository);
+    }
+}
@@ -2,25 +2,43 @@ package ru.practicum.shareit.item.service;
 
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ValidationException;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Window;
+import ru.practicum.shareit.advice.Cursor;
+import ru.practicum.shareit.advice.enums.BookingStatus;
+import ru.practicum.shareit.advice.enums.SlotStatus;
 import ru.practicum.shareit.advice.exception.AccessDeniedException;
 import ru.practicum.shareit.advice.exception.CommentCreationException;
 import ru.practicum.shareit.advice.exception.EntityNotFoundException;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemAllFieldsDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.Collection;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -65,6 +83,8 @@ public class ItemServiceTest {
 
     @Test
     void testFindItemByOwner() {
+        bookingService.update(userOwner.getId(), bookingDto.getId(), true);
+
         ItemAllFieldsDto fullItem = itemService.find(item.getId(), userOwner.getId());
         assertEquals(item.getId(), fullItem.getId());
         assertNotNull(fullItem.getLastBooking());
@@ -72,6 +92,30 @@ public class ItemServiceTest {
         assertTrue(fullItem.getComments().isEmpty()); // Убедитесь, что комментарии пусты
     }
 
+    @Test
+    void testFindItemByOwnerIgnoresWaitingBookings() {
+        ItemAllFieldsDto fullItem = itemService.find(item.getId(), userOwner.getId());
+        assertNull(fullItem.getLastBooking());
+        assertNull(fullItem.getNextBooking());
+    }
+
+    @Test
+    void testFindItemsByOwnerWithLastAndNextBookings() {
+        bookingService.update(userOwner.getId(), bookingDto.getId(), true);
+        LocalDateTime nextStart = LocalDateTime.now().plusDays(1);
+        BookingDto nextBooking = bookingService.create(booker.getId(),
+                new BookingCreateDto(null, nextStart, nextStart.plusDays(1), item.getId()));
+        entityManager.flush();
+        entityManager.clear();
+        bookingService.update(userOwner.getId(), nextBooking.getId(), true);
+        entityManager.flush();
+        entityManager.clear();
+
+        ItemAllFieldsDto fullItem = itemService.findAll(userOwner.getId(), null, null).iterator().next();
+        assertEquals(bookingDto.getId(), fullItem.getLastBooking().getId());
+        assertEquals(nextBooking.getId(), fullItem.getNextBooking().getId());
+    }
+
     @Test
     void testUpdateItemByOwner() {
         ItemDto updatedItem = itemService.update(new ItemDto(null, "Updated Item",
@@ -95,6 +139,61 @@ public class ItemServiceTest {
         assertEquals(item.getId(), items.iterator().next().getId());
     }
 
+    @Test
+    void testFindItemsByOwnerUsesFixedQueryCount() {
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+
+        addCommentedItems(1);
+        statistics.clear();
+        assertEquals(2, itemService.findAll(userOwner.getId(), null, null).size());
+        long queriesForFewItems = statistics.getPrepareStatementCount();
+
+        addCommentedItems(10);
+        statistics.clear();
+        assertEquals(12, itemService.findAll(userOwner.getId(), null, null).size());
+        long queriesForManyItems = statistics.getPrepareStatementCount();
+
+        assertEquals(queriesForFewItems, queriesForManyItems);
+    }
+
+    @Test
+    void testFindItemsByOwnerPageDoesNotLimitBookings() {
+        bookingService.update(userOwner.getId(), bookingDto.getId(), true);
+        addApprovedBookings(LocalDateTime.now().plusDays(1), 3);
+        itemService.create(new ItemDto(null, "Second", "about", true, null), userOwner.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        Collection<ItemAllFieldsDto> firstPage = itemService.findAll(userOwner.getId(), 0, 1);
+        assertEquals(1, firstPage.size());
+        ItemAllFieldsDto fullItem = firstPage.iterator().next();
+        assertEquals(item.getId(), fullItem.getId());
+        assertEquals(bookingDto.getId(), fullItem.getLastBooking().getId());
+        assertNotNull(fullItem.getNextBooking());
+    }
+
+    @Test
+    void testFindItemsByOwnerQueryCountIsFlatWithBookingHistory() {
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+
+        addApprovedBookings(LocalDateTime.now().minusYears(1), 1);
+        statistics.clear();
+        itemService.findAll(userOwner.getId(), 0, 10);
+        long queriesForShortHistory = statistics.getPrepareStatementCount();
+        long entitiesForShortHistory = statistics.getEntityLoadCount();
+
+        addApprovedBookings(LocalDateTime.now().minusYears(1), 50);
+        statistics.clear();
+        itemService.findAll(userOwner.getId(), 0, 10);
+
+        assertEquals(queriesForShortHistory, statistics.getPrepareStatementCount());
+        assertEquals(entitiesForShortHistory, statistics.getEntityLoadCount());
+    }
+
     @Test
     void testSearchItems() {
         Collection<ItemDto> foundItems = itemService.search("Item", 0, 10);
@@ -102,6 +201,54 @@ public class ItemServiceTest {
         assertEquals("Item", foundItems.iterator().next().getName());
     }
 
+    @Test
+    void testScrollSearchAndOwnerItems() {
+        ItemDto second = itemService.create(new ItemDto(null, "Item two", "about", true, null),
+                userOwner.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        Window<ItemDto> firstSearchPage = itemService.scrollSearch("item", "", 1);
+        Window<ItemDto> secondSearchPage = itemService.scrollSearch("item", Cursor.encode(firstSearchPage), 1);
+        assertEquals(item.getId(), firstSearchPage.getContent().get(0).getId());
+        assertEquals(second.getId(), secondSearchPage.getContent().get(0).getId());
+        assertNull(Cursor.encode(secondSearchPage));
+
+        Window<ItemAllFieldsDto> firstOwnerPage = itemService.scrollAll(userOwner.getId(), "", 1);
+        Window<ItemAllFieldsDto> secondOwnerPage = itemService.scrollAll(userOwner.getId(),
+                Cursor.encode(firstOwnerPage), 1);
+        assertEquals(item.getId(), firstOwnerPage.getContent().get(0).getId());
+        assertEquals(second.getId(), secondOwnerPage.getContent().get(0).getId());
+        assertFalse(secondOwnerPage.hasNext());
+    }
+
+    @Test
+    void testSearchRanksNameMatchesFirst() {
+        ItemDto descriptionMatch = itemService.create(new ItemDto(null, "Hammer", "like a drill", true, null),
+                userOwner.getId());
+        ItemDto nameMatch = itemService.create(new ItemDto(null, "Drill", "about", true, null),
+                userOwner.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Long> found = itemService.search("drill", 0, 10).stream().map(ItemDto::getId).toList();
+        assertEquals(List.of(nameMatch.getId(), descriptionMatch.getId()), found);
+
+        Window<ItemDto> firstPage = itemService.scrollSearch("drill", "", 1);
+        Window<ItemDto> secondPage = itemService.scrollSearch("drill", Cursor.encode(firstPage), 1);
+        assertEquals(nameMatch.getId(), firstPage.getContent().get(0).getId());
+        assertEquals(descriptionMatch.getId(), secondPage.getContent().get(0).getId());
+        assertFalse(secondPage.hasNext());
+    }
+
+    @Test
+    void testScrollSearchRejectsCursorWithWrongKeyTypes() {
+        String cursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("rank=l0;id=l1".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(ValidationException.class, () -> itemService.scrollSearch("drill", cursor, 1));
+    }
+
     @Test
     void testSearchItemsWithEmptyText() {
         Collection<ItemDto> emptySearchResult = itemService.search("", 0, 10);
@@ -120,6 +267,47 @@ public class ItemServiceTest {
         assertEquals("comment", commentDto.getText());
     }
 
+    @Test
+    void testItemTagFollowsItemCommentsAndBookings() {
+        String ownerTag = itemService.findTag(item.getId(), userOwner.getId());
+        String bookerTag = itemService.findTag(item.getId(), booker.getId());
+        assertEquals(ownerTag, itemService.findTag(item.getId(), userOwner.getId()));
+        assertNotEquals(ownerTag, bookerTag);
+
+        bookingService.update(userOwner.getId(), bookingDto.getId(), true);
+        entityManager.flush();
+        assertNotEquals(ownerTag, ownerTag = itemService.findTag(item.getId(), userOwner.getId()));
+        assertEquals(bookerTag, itemService.findTag(item.getId(), booker.getId()));
+
+        itemService.createComment(new CommentDto(null, "comment", booker.getName(), commentTime),
+                item.getId(), booker.getId());
+        entityManager.flush();
+        assertNotEquals(bookerTag, bookerTag = itemService.findTag(item.getId(), booker.getId()));
+
+        userService.update(new UserDto(null, "Renamed", null), booker.getId());
+        entityManager.flush();
+        assertNotEquals(bookerTag, bookerTag = itemService.findTag(item.getId(), booker.getId()));
+
+        itemService.update(new ItemDto(null, "Renamed", null, null, null), item.getId(), userOwner.getId());
+        entityManager.flush();
+        assertNotEquals(ownerTag, itemService.findTag(item.getId(), userOwner.getId()));
+        assertNotEquals(bookerTag, itemService.findTag(item.getId(), booker.getId()));
+    }
+
+    @Test
+    void testTaggedItemMatchesItemTag() {
+        bookingService.update(userOwner.getId(), bookingDto.getId(), true);
+        itemService.createComment(new CommentDto(null, "comment", booker.getName(), commentTime),
+                item.getId(), booker.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(itemService.findTag(item.getId(), userOwner.getId()),
+                itemService.findTagged(item.getId(), userOwner.getId()).etag());
+        assertEquals(itemService.findTag(item.getId(), booker.getId()),
+                itemService.findTagged(item.getId(), booker.getId()).etag());
+    }
+
     @Test
     void testCreateCommentByNonBooker() {
         assertThrows(CommentCreationException.class,
@@ -136,10 +324,88 @@ public class ItemServiceTest {
         );
     }
 
+    @Test
+    void testFindAvailability() {
+        addApprovedBookings(LocalDateTime.of(2025, 5, 13, 12, 30), 1);
+
+        ItemAvailabilityDto availability = itemService.findAvailability(item.getId(), booker.getId(),
+                LocalDateTime.of(2025, 5, 11, 8, 15), LocalDateTime.of(2025, 5, 13, 15, 0));
+
+        assertEquals(LocalDateTime.of(2025, 5, 11, 8, 0), availability.getFrom());
+        assertEquals(LocalDateTime.of(2025, 5, 13, 15, 0), availability.getTo());
+        assertEquals(List.of(
+                new AvailabilitySlotDto(LocalDateTime.of(2025, 5, 11, 8, 0),
+                        LocalDateTime.of(2025, 5, 11, 10, 0), SlotStatus.FREE),
+                new AvailabilitySlotDto(LocalDateTime.of(2025, 5, 11, 10, 0),
+                        LocalDateTime.of(2025, 5, 12, 10, 0), SlotStatus.WAITING),
+                new AvailabilitySlotDto(LocalDateTime.of(2025, 5, 12, 10, 0),
+                        LocalDateTime.of(2025, 5, 13, 12, 0), SlotStatus.FREE),
+                new AvailabilitySlotDto(LocalDateTime.of(2025, 5, 13, 12, 0),
+                        LocalDateTime.of(2025, 5, 13, 15, 0), SlotStatus.BOOKED)),
+                availability.getSlots());
+    }
+
+    @Test
+    void testFindAvailabilityWithInvalidRange() {
+        LocalDateTime from = LocalDateTime.of(2025, 5, 11, 8, 0);
+
+        assertThrows(ValidationException.class,
+                () -> itemService.findAvailability(item.getId(), booker.getId(), from, from));
+        assertThrows(ValidationException.class,
+                () -> itemService.findAvailability(item.getId(), booker.getId(), from, from.plusYears(2)));
+        assertThrows(EntityNotFoundException.class,
+                () -> itemService.findAvailability(99L, booker.getId(), from, from.plusDays(1)));
+        assertThrows(EntityNotFoundException.class,
+                () -> itemService.findAvailability(item.getId(), 99L, from, from.plusDays(1)));
+    }
+
+    @Test
+    void testExportAll() throws IOException {
+        addCommentedItems(2);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        itemService.exportAll(userOwner.getId(), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].contains("\"id\":" + item.getId()));
+        assertTrue(lines[2].contains("\"name\":\"Extra 1\""));
+    }
+
     @Test
     void testFindItemByNonExistentId() {
         assertThrows(EntityNotFoundException.class,
                 () -> itemService.find(99L, userOwner.getId())
         );
     }
+
+    private void addApprovedBookings(LocalDateTime firstStart, int count) {
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = firstStart.plusDays(2L * i);
+            entityManager.persist(Booking.builder()
+                    .start(start)
+                    .endTime(start.plusDays(1))
+                    .item(entityManager.getReference(Item.class, item.getId()))
+                    .booker(entityManager.getReference(User.class, booker.getId()))
+                    .status(BookingStatus.APPROVED)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private void addCommentedItems(int count) {
+        for (int i = 0; i < count; i++) {
+            ItemDto extraItem = itemService.create(new ItemDto(null, "Extra " + i, "about", true, null),
+                    userOwner.getId());
+            entityManager.persist(Comment.builder()
+                    .text("comment " + i)
+                    .item(entityManager.getReference(Item.class, extraItem.getId()))
+                    .author(entityManager.getReference(User.class, booker.getId()))
+                    .created(commentTime)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
 }
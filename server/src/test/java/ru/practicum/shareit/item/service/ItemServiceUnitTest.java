@@ -7,6 +7,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.advice.NdjsonWriter;
 import ru.practicum.shareit.advice.enums.BookingStatus;
 import ru.practicum.shareit.advice.exception.AccessDeniedException;
 import ru.practicum.shareit.advice.exception.CommentCreationException;
@@ -23,6 +24,7 @@ import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceIndex;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
@@ -33,6 +35,7 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -47,6 +50,12 @@ public class ItemServiceUnitTest {
     private CommentRepository commentRepository;
     @Mock
     private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+    @Mock
+    private NdjsonWriter ndjsonWriter;
+    @Mock
+    private UserExistenceIndex userExistenceIndex;
 
     private ItemService itemService;
 
@@ -60,16 +69,16 @@ public class ItemServiceUnitTest {
     @BeforeEach
     void setUp() {
         itemService = new ItemService(userRepository, itemRepository, bookingRepository,
-                commentRepository, itemRequestRepository);
-        owner = new User(1L, "Owner", "owner@mail.com");
-        booker = new User(2L, "Booker", "booker@mail.com");
+                commentRepository, itemRequestRepository, itemSearchIndex, ndjsonWriter, userExistenceIndex);
+        owner = new User(1L, "Owner", "owner@mail.com", 0L);
+        booker = new User(2L, "Booker", "booker@mail.com", 0L);
         itemDto = new ItemDto(1L, "Drill", "Electric", true, null);
-        item = new Item(1L, "Drill", "Electric", true, owner, null);
+        item = new Item(1L, "Drill", "Electric", true, owner, null, 0L);
 
         LocalDateTime start = LocalDateTime.of(2025, 6, 11, 10, 0);
         LocalDateTime end = start.plusDays(1);
 
-        booking = new Booking(1L, start, end, item, booker, BookingStatus.WAITING);
+        booking = new Booking(1L, start, end, item, booker, BookingStatus.WAITING, 0L);
         comment = new Comment(1L, "Nice", item, booker, LocalDateTime.now());
     }
 
@@ -86,7 +95,7 @@ public class ItemServiceUnitTest {
 
     @Test
     void testUpdateItem_ByOwner_Success() {
-        Item updatedItem = new Item(1L, "Hammer", "Heavy", false, owner, null);
+        Item updatedItem = new Item(1L, "Hammer", "Heavy", false, owner, null, 0L);
         ItemDto updateDto = new ItemDto(1L, "Hammer", "Heavy", false, null);
 
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
@@ -107,26 +116,54 @@ public class ItemServiceUnitTest {
 
     @Test
     void testFindItemAllFields_Success() {
+        booking.setStatus(BookingStatus.APPROVED);
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
-        when(bookingRepository.findAllByItem_Id(anyLong())).thenReturn(List.of(booking));
+        when(bookingRepository.findFirstByItem_IdAndStatusAndEndTimeBeforeOrderByEndTimeDesc(eq(item.getId()),
+                eq(BookingStatus.APPROVED), any())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findFirstByItem_IdAndStatusAndStartAfterOrderByStartAsc(eq(item.getId()),
+                eq(BookingStatus.APPROVED), any())).thenReturn(Optional.empty());
         when(commentRepository.findAllByItemId(anyLong())).thenReturn(Collections.singletonList(comment));
 
         ItemAllFieldsDto dto = itemService.find(item.getId(), owner.getId());
 
         assertEquals(item.getId(), dto.getId());
+        assertEquals(booking.getId(), dto.getLastBooking().getId());
         assertNull(dto.getNextBooking());
         assertFalse(dto.getComments().isEmpty());
     }
 
+    @Test
+    void testFindItemAllFields_ByNonOwner_SkipsBookings() {
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+
+        ItemAllFieldsDto dto = itemService.find(item.getId(), booker.getId());
+
+        assertNull(dto.getLastBooking());
+        assertNull(dto.getNextBooking());
+        verifyNoInteractions(bookingRepository);
+    }
+
     @Test
     void testFindAllItemsByOwner() {
         when(itemRepository.findByOwnerId(eq(owner.getId()), any(PageRequest.class)))
                 .thenReturn(new PageImpl<>(List.of(item)));
-        when(bookingRepository.findAllByItem_Owner_Id(eq(owner.getId()), any(PageRequest.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        booking.setStatus(BookingStatus.APPROVED);
+        when(bookingRepository.findLastAndNextBookings(eq(List.of(item.getId())), eq(BookingStatus.APPROVED), any()))
+                .thenReturn(List.of(booking));
 
         Collection<ItemAllFieldsDto> list = itemService.findAll(owner.getId(), 0, 10);
         assertEquals(1, list.size());
+        assertEquals(booking.getId(), list.iterator().next().getLastBooking().getId());
+        assertNull(list.iterator().next().getNextBooking());
+    }
+
+    @Test
+    void testFindAllItemsByOwner_EmptyPageSkipsLookups() {
+        when(itemRepository.findByOwnerId(eq(owner.getId()), any(PageRequest.class)))
+                .thenReturn(new PageImpl<>(List.of()));
+
+        assertTrue(itemService.findAll(owner.getId(), 0, 10).isEmpty());
+        verifyNoInteractions(bookingRepository, commentRepository);
     }
 
     @Test
@@ -1,7 +1,11 @@
 package ru.practicum.shareit.request.controller;
 
 import jakarta.validation.ValidationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.advice.ResultSizeGovernor;
+import ru.practicum.shareit.advice.Tagged;
 import ru.practicum.shareit.advice.exception.EntityNotFoundException;
 import ru.practicum.shareit.request.dto.ItemRequestAllFieldsDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -30,6 +34,7 @@ import static org.mockito.Mockito.when;
 import static org.hamcrest.Matchers.*;
 
 @WebMvcTest(controllers = ItemRequestController.class)
+@Import({ResultSizeGovernor.class, SimpleMeterRegistry.class})
 public class ItemRequestControllerTest {
     private final LocalDateTime time = of(2025, 6, 11, 10, 0);
     private final String headerSharerUserId = "X-Sharer-User-Id";
@@ -105,8 +110,8 @@ public class ItemRequestControllerTest {
 
     @Test
     void getItemRequestById() throws Exception {
-        when(itemRequestService.find(anyLong(), anyLong()))
-                .thenReturn(itemRequestAllFieldsDto);
+        when(itemRequestService.findTagged(anyLong(), anyLong()))
+                .thenReturn(new Tagged<>(itemRequestAllFieldsDto, "\"1-0.0.0\""));
         mvc.perform(get("/requests/{requestId}", 1)
                         .header(headerSharerUserId, 1)
                 )
@@ -119,7 +124,7 @@ public class ItemRequestControllerTest {
 
     @Test
     void getItemRequestNotFoundExceptionTest() throws Exception {
-        when(itemRequestService.find(anyLong(), anyLong()))
+        when(itemRequestService.findTagged(anyLong(), anyLong()))
                 .thenThrow(EntityNotFoundException.class);
         mvc.perform(get("/requests/{requestId}", 1)
                         .header(headerSharerUserId, 27))
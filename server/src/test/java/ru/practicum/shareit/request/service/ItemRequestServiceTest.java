@@ -8,6 +8,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Window;
+import ru.practicum.shareit.advice.Cursor;
 import ru.practicum.shareit.advice.exception.EntityNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.ItemRequestAllFieldsDto;
@@ -96,6 +98,23 @@ public class ItemRequestServiceTest {
         assertEquals("Drill", dto.getItems().iterator().next().getName());
     }
 
+    @Test
+    void testFindTaggedMatchesFindTag() {
+        ItemRequestDto created = itemRequestService.create(itemRequestDto, user.getId());
+        Item item = Item.builder()
+                .name("Drill")
+                .description("Electric drill")
+                .available(true)
+                .owner(entityManager.find(ru.practicum.shareit.user.model.User.class, user.getId()))
+                .request(entityManager.find(ru.practicum.shareit.request.model.ItemRequest.class, created.getId()))
+                .build();
+        entityManager.persist(item);
+        entityManager.flush();
+
+        assertEquals(itemRequestService.findTag(created.getId(), user.getId()),
+                itemRequestService.findTagged(created.getId(), user.getId()).etag());
+    }
+
     @Test
     void testFindAll_OtherUsers() {
         UserDto other = userService.create(
@@ -107,4 +126,47 @@ public class ItemRequestServiceTest {
         assertEquals(1, others.size());
         assertEquals("about", others.iterator().next().getDescription());
     }
+
+    @Test
+    void testScrollAll_OtherUsers() {
+        UserDto other = userService.create(
+                new UserDto(null, "Bob", "bob@mail.com"));
+        ItemRequestDto first = itemRequestService.create(itemRequestDto, other.getId());
+        ItemRequestDto second = itemRequestService.create(itemRequestDto, other.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        Window<ItemRequestDto> firstPage = itemRequestService.scrollAll(user.getId(), "", 1);
+        Window<ItemRequestDto> secondPage = itemRequestService.scrollAll(user.getId(),
+                Cursor.encode(firstPage), 1);
+
+        assertEquals(second.getId(), firstPage.getContent().get(0).getId());
+        assertEquals(first.getId(), secondPage.getContent().get(0).getId());
+        assertFalse(secondPage.hasNext());
+    }
+
+    @Test
+    void testScrollAllUserRequests_WithItems() {
+        ItemRequestDto first = itemRequestService.create(itemRequestDto, user.getId());
+        ItemRequestDto second = itemRequestService.create(itemRequestDto, user.getId());
+        entityManager.persist(Item.builder()
+                .name("Drill")
+                .description("Electric drill")
+                .available(true)
+                .owner(entityManager.find(ru.practicum.shareit.user.model.User.class, user.getId()))
+                .request(entityManager.find(ru.practicum.shareit.request.model.ItemRequest.class, first.getId()))
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        Window<ItemRequestAllFieldsDto> firstPage = itemRequestService.scrollAllUserRequests(user.getId(), null, 1);
+        Window<ItemRequestAllFieldsDto> secondPage = itemRequestService.scrollAllUserRequests(user.getId(),
+                Cursor.encode(firstPage), 1);
+
+        assertEquals(second.getId(), firstPage.getContent().get(0).getId());
+        assertTrue(firstPage.hasNext());
+        assertEquals(first.getId(), secondPage.getContent().get(0).getId());
+        assertEquals(1, secondPage.getContent().get(0).getItems().size());
+        assertFalse(secondPage.hasNext());
+    }
 }
@@ -18,6 +18,8 @@ import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
@@ -50,20 +52,21 @@ public class ItemRequestServiceUnitTest {
                 .name("marry")
                 .email("marry@mail.com")
                 .build();
-        user = new User(userDto.getId(), userDto.getName(), userDto.getEmail());
+        user = new User(userDto.getId(), userDto.getName(), userDto.getEmail(), 0L);
         itemRequestDto = ItemRequestDto.builder()
                 .id(1L)
                 .description("my request")
                 .created(LocalDateTime.now())
                 .build();
-        itemRequestService = new ItemRequestService(itemRequestRepository, userRepository, itemRepository);
+        itemRequestService = new ItemRequestService(itemRequestRepository,
+                new UserExistenceIndex(userRepository, new SimpleMeterRegistry(), 100, 0.01, 100), itemRepository);
         itemRequest = ItemRequestMapper.toItemRequest(itemRequestDto, userDto.getId());
         itemRequest.setId(itemRequestDto.getId());
     }
 
     @Test
     void testCreate_Success() {
-        when(userRepository.findById(userDto.getId())).thenReturn(Optional.of(user));
+        when(userRepository.existsById(userDto.getId())).thenReturn(true);
         when(itemRequestRepository.save(any(ItemRequest.class))).thenReturn(itemRequest);
 
         ItemRequestDto created = itemRequestService.create(itemRequestDto, userDto.getId());
@@ -75,7 +78,7 @@ public class ItemRequestServiceUnitTest {
 
     @Test
     void testCreate_UserNotFound() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userRepository.existsById(anyLong())).thenReturn(false);
 
         assertThrows(EntityNotFoundException.class,
                 () -> itemRequestService.create(itemRequestDto, 99L));
@@ -83,12 +86,12 @@ public class ItemRequestServiceUnitTest {
 
     @Test
     void testFindById_Success() {
-        when(userRepository.findById(userDto.getId())).thenReturn(Optional.of(user));
+        when(userRepository.existsById(userDto.getId())).thenReturn(true);
         when(itemRequestRepository.findById(itemRequest.getId()))
                 .thenReturn(Optional.of(itemRequest));
         when(itemRepository.findAllByRequest_Id(itemRequest.getId()))
                 .thenReturn(List.of(new Item(1L, "Drill", "Electric",
-                        true, user, itemRequest)));
+                        true, user, itemRequest, 0L)));
 
         ItemRequestAllFieldsDto found =
                 itemRequestService.find(itemRequest.getId(), userDto.getId());
@@ -102,7 +105,7 @@ public class ItemRequestServiceUnitTest {
 
     @Test
     void testFindById_UserNotFound() {
-        when(userRepository.findById(userDto.getId())).thenReturn(Optional.empty());
+        when(userRepository.existsById(userDto.getId())).thenReturn(false);
 
         assertThrows(EntityNotFoundException.class,
                 () -> itemRequestService.find(itemRequest.getId(), userDto.getId()));
@@ -110,7 +113,7 @@ public class ItemRequestServiceUnitTest {
 
     @Test
     void testFindById_NotFound() {
-        when(userRepository.findById(userDto.getId())).thenReturn(Optional.of(user));
+        when(userRepository.existsById(userDto.getId())).thenReturn(true);
         when(itemRequestRepository.findById(itemRequest.getId()))
                 .thenReturn(Optional.empty());
 
@@ -120,7 +123,7 @@ public class ItemRequestServiceUnitTest {
 
     @Test
     void testFindAllUserRequests_Success() {
-        when(userRepository.findById(userDto.getId())).thenReturn(Optional.of(user));
+        when(userRepository.existsById(userDto.getId())).thenReturn(true);
         when(itemRequestRepository.findAllByRequestor_IdOrderByCreatedDesc(
                 eq(userDto.getId()), any(PageRequest.class)))
                 .thenReturn(new PageImpl<>(singletonList(itemRequest)));
@@ -157,14 +160,14 @@ public class ItemRequestServiceUnitTest {
 
     @Test
     void testFindAllUserRequests_UserNotFound() {
-        when(userRepository.findById(userDto.getId())).thenReturn(Optional.empty());
+        when(userRepository.existsById(userDto.getId())).thenReturn(false);
         assertThrows(EntityNotFoundException.class,
                 () -> itemRequestService.findAllUserRequests(userDto.getId(), 0, 10));
     }
 
     @Test
     void testFindAllOtherUsers_Success() {
-        when(userRepository.findById(userDto.getId())).thenReturn(Optional.of(user));
+        when(userRepository.existsById(userDto.getId())).thenReturn(true);
         when(itemRequestRepository.findAllByRequestor_IdNotOrderByCreatedDesc(
                 eq(userDto.getId()), any(PageRequest.class)))
                 .thenReturn(new PageImpl<>(singletonList(itemRequest)));
@@ -177,7 +180,7 @@ public class ItemRequestServiceUnitTest {
 
     @Test
     void testFindAllOtherUsers_Empty() {
-        when(userRepository.findById(userDto.getId())).thenReturn(Optional.of(user));
+        when(userRepository.existsById(userDto.getId())).thenReturn(true);
         when(itemRequestRepository.findAllByRequestor_IdNotOrderByCreatedDesc(
                 eq(userDto.getId()), any(PageRequest.class)))
                 .thenReturn(new PageImpl<>(List.of()));
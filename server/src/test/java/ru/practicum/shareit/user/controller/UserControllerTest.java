@@ -1,18 +1,27 @@
 package ru.practicum.shareit.user.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.validation.ValidationException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.advice.Cursor;
+import ru.practicum.shareit.advice.ResultSizeGovernor;
+import ru.practicum.shareit.advice.Tagged;
 import ru.practicum.shareit.advice.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.DuplicateEmailException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 import java.util.List;
+import java.util.Map;
 
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -25,6 +34,7 @@ import static org.mockito.Mockito.when;
 
 
 @WebMvcTest(controllers = UserController.class)
+@Import({ResultSizeGovernor.class, SimpleMeterRegistry.class})
 public class UserControllerTest {
     @MockBean
     UserService userService;
@@ -73,8 +83,8 @@ public class UserControllerTest {
 
     @Test
     void getUserByIdTest() throws Exception {
-        when(userService.find(any()))
-                .thenReturn(userDto);
+        when(userService.findTagged(any()))
+                .thenReturn(new Tagged<>(userDto, "\"1\""));
         mvc.perform(get("/users/{userId}", 1)
                         .content(mapper.writeValueAsString(userDto))
                         .contentType(APPLICATION_JSON)
@@ -98,9 +108,11 @@ public class UserControllerTest {
 
     @Test
     void getAllTest() throws Exception {
-        when(userService.findAll())
+        when(userService.findAll(eq(0), eq(10)))
                 .thenReturn(List.of(userDto));
         mvc.perform(get("/users")
+                        .param("from", "0")
+                        .param("size", "10")
                 )
                 .andExpect(jsonPath("$[0].id", is(userDto.getId()), Long.class))
                 .andExpect(jsonPath("$[0].email", is(userDto.getEmail())))
@@ -109,6 +121,18 @@ public class UserControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getAllWithoutPaginationReturnsCappedFirstPageTest() throws Exception {
+        when(userService.scrollAll(isNull(), eq(1000)))
+                .thenReturn(Window.from(List.of(userDto), index -> ScrollPosition.forward(
+                        Map.of("id", userDto.getId())), true));
+        mvc.perform(get("/users")
+                )
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().exists(Cursor.NEXT_CURSOR_HEADER))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void saveUserEmailExceptionTest() throws Exception {
         when(userService.create(any(UserDto.class)))
@@ -137,7 +161,7 @@ public class UserControllerTest {
 
     @Test
     void getUserNotFoundExceptionTest() throws Exception {
-        when(userService.find(any()))
+        when(userService.findTagged(any()))
                 .thenThrow(EntityNotFoundException.class);
         mvc.perform(get("/users/{userId}", 7)
                 )
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.user.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.advice.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class UserCacheTest {
+    private final UserService userService;
+    private final ItemService itemService;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final MeterRegistry meterRegistry;
+    private Statistics statistics;
+    private UserDto user;
+    private ItemDto item;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = userService.create(new UserDto(null, "Cached", "cache-user@mail.com"));
+        item = itemService.create(new ItemDto(null, "Drill", "Electric drill", true, null), user.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteById(item.getId());
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void testRepeatedLookupsHitSecondLevelCache() {
+        userService.find(user.getId());
+        statistics.clear();
+
+        userService.find(user.getId());
+        userRepository.findById(user.getId());
+
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(2, statistics.getDomainDataRegionStatistics("users").getHitCount());
+        assertTrue(meterRegistry.get("hibernate.second.level.cache.requests")
+                .tags("region", "users", "result", "hit")
+                .functionCounter().count() >= 2);
+    }
+
+    @Test
+    void testUserUpdateAndDeleteInvalidateCache() {
+        userService.find(user.getId());
+
+        userService.update(new UserDto(null, "Renamed", null), user.getId());
+        assertEquals("Renamed", userService.find(user.getId()).getName());
+
+        itemRepository.deleteById(item.getId());
+        userService.delete(user.getId());
+        assertThrows(EntityNotFoundException.class, () -> userService.find(user.getId()));
+        user = userService.create(new UserDto(null, "Cached", "cache-user@mail.com"));
+        item = itemService.create(new ItemDto(null, "Drill", "Electric drill", true, null), user.getId());
+    }
+
+    @Test
+    void testItemUpdateRefreshesCache() {
+        itemRepository.findById(item.getId());
+
+        itemService.update(new ItemDto(null, "Hammer", null, false, null), item.getId(), user.getId());
+        statistics.clear();
+
+        var cached = itemRepository.findById(item.getId()).orElseThrow();
+        assertEquals("Hammer", cached.getName());
+        assertFalse(cached.getAvailable());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
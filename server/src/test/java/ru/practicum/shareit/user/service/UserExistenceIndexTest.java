@@ -0,0 +1,144 @@
+package ru.practicum.shareit.user.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.advice.exception.EntityNotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserExistenceIndexTest {
+    @Mock
+    private UserRepository userRepository;
+    private MeterRegistry meterRegistry;
+    private UserExistenceIndex index;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        index = new UserExistenceIndex(userRepository, meterRegistry, 1000, 0.01, 2);
+    }
+
+    @Test
+    void testUnknownIdCheckedOnceThenRejectedFromCache() {
+        when(userRepository.findIdsAfter(eq(0L), any())).thenReturn(List.of(1L, 5L, 1000L));
+        index.build();
+
+        assertThrows(EntityNotFoundException.class, () -> index.check(2L));
+        assertThrows(EntityNotFoundException.class, () -> index.check(2L));
+
+        verify(userRepository, times(1)).existsById(2L);
+        assertEquals(1.0, meterRegistry.counter(UserExistenceIndex.CHECKS_METRIC, "result", "missing").count());
+        assertEquals(1.0, meterRegistry.counter(UserExistenceIndex.CHECKS_METRIC, "result", "rejected").count());
+    }
+
+    @Test
+    void testUserUnknownToFilterFoundInDatabase() {
+        when(userRepository.findIdsAfter(eq(0L), any())).thenReturn(List.of(1L, 5L, 1000L));
+        when(userRepository.existsById(3L)).thenReturn(true);
+        index.build();
+
+        index.check(3L);
+        index.check(3L);
+
+        verify(userRepository, times(1)).existsById(3L);
+        assertEquals(1.0, meterRegistry.counter(UserExistenceIndex.CHECKS_METRIC,
+                "result", "filter-miss").count());
+    }
+
+    @Test
+    void testKnownIdConfirmedOnceThenServedFromCache() {
+        when(userRepository.findIdsAfter(eq(0L), any())).thenReturn(List.of(1L));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        index.build();
+
+        index.check(1L);
+        index.check(1L);
+
+        verify(userRepository, times(1)).existsById(1L);
+        assertEquals(1.0, meterRegistry.counter(UserExistenceIndex.CHECKS_METRIC, "result", "confirmed").count());
+    }
+
+    @Test
+    void testAddedAndRemovedUsers() {
+        when(userRepository.findIdsAfter(eq(0L), any())).thenReturn(List.of());
+        index.build();
+
+        index.add(7L);
+        index.check(7L);
+        verify(userRepository, never()).existsById(anyLong());
+
+        index.remove(7L);
+        assertThrows(EntityNotFoundException.class, () -> index.check(7L));
+        assertEquals(1.0, meterRegistry.counter(UserExistenceIndex.CHECKS_METRIC,
+                "result", "false-positive").count());
+
+        index.add(7L);
+        index.check(7L);
+        verify(userRepository, times(1)).existsById(7L);
+    }
+
+    @Test
+    void testIdsAboveKnownRangeAndBeforeBuildGoToDatabase() {
+        when(userRepository.existsById(3L)).thenReturn(true);
+        assertTrue(index.exists(3L));
+
+        when(userRepository.findIdsAfter(eq(0L), any())).thenReturn(List.of(3L));
+        index.build();
+        when(userRepository.existsById(10L)).thenReturn(true);
+
+        assertTrue(index.exists(10L));
+        assertFalse(index.exists(null));
+    }
+
+    @Test
+    void testRefreshPicksUpUsersCreatedElsewhereAndForgetsDeletedOnes() {
+        when(userRepository.findIdsAfter(eq(0L), any())).thenReturn(List.of(1L, 100L));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        index.build();
+        index.check(1L);
+        assertThrows(EntityNotFoundException.class, () -> index.check(51L));
+
+        when(userRepository.findIdsAfter(eq(0L), any())).thenReturn(List.of(51L, 100L));
+        index.refresh();
+
+        when(userRepository.existsById(51L)).thenReturn(true);
+        index.check(51L);
+        when(userRepository.existsById(1L)).thenReturn(false);
+        assertThrows(EntityNotFoundException.class, () -> index.check(1L));
+        verify(userRepository, times(2)).existsById(51L);
+        verify(userRepository, times(2)).existsById(1L);
+    }
+
+    @Test
+    void testFalsePositiveRateStaysNearTarget() {
+        when(userRepository.findIdsAfter(eq(0L), any())).thenReturn(LongStream.rangeClosed(1, 1000)
+                .map(id -> id * 2)
+                .boxed()
+                .toList());
+        index.build();
+
+        long falsePositives = LongStream.rangeClosed(1, 1000)
+                .map(id -> id * 2 - 1)
+                .filter(index::exists)
+                .count();
+
+        assertEquals(0, falsePositives);
+        double observed = meterRegistry.counter(UserExistenceIndex.CHECKS_METRIC, "result", "false-positive")
+                .count() / 1000;
+        assertTrue(observed < 0.03, "observed false positive rate " + observed);
+        assertTrue(meterRegistry.get("shareit.user.existence.filter.bytes").gauge().value() > 0);
+        assertTrue(meterRegistry.get("shareit.user.existence.filter.fpp").gauge().value() < 0.03);
+    }
+}
@@ -3,6 +3,8 @@ package ru.practicum.shareit.user.service;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Window;
+import ru.practicum.shareit.advice.Cursor;
 import ru.practicum.shareit.advice.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.DuplicateEmailException;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -52,13 +54,13 @@ public class UserServiceTest {
 
     @Test
     void testFindAll() {
-        assertFalse(userService.findAll().isEmpty());
+        assertFalse(userService.findAll(0, 10).isEmpty());
     }
 
     @Test
     void testFindAll_EmptyList() {
         userService.delete(userDto.getId());
-        assertTrue(userService.findAll().isEmpty());
+        assertTrue(userService.findAll(0, 10).isEmpty());
     }
 
     @Test
@@ -117,11 +119,23 @@ public class UserServiceTest {
         userService.create(userDto3);
 
 
-        Collection<UserDto> users = userService.findAll();
+        Collection<UserDto> users = userService.findAll(0, 10);
         assertEquals(4, users.size());
 
         assertTrue(users.stream().anyMatch(user -> user.getName().equals("User One")));
         assertTrue(users.stream().anyMatch(user -> user.getName().equals("User Two")));
         assertTrue(users.stream().anyMatch(user -> user.getName().equals("User Three")));
     }
+
+    @Test
+    void testScrollAll() {
+        UserDto second = userService.create(new UserDto(null, "Jane", "jane@mail.com"));
+
+        Window<UserDto> firstPage = userService.scrollAll(null, 1);
+        Window<UserDto> secondPage = userService.scrollAll(Cursor.encode(firstPage), 1);
+
+        assertEquals(userDto.getId(), firstPage.getContent().get(0).getId());
+        assertTrue(firstPage.hasNext());
+        assertEquals(second.getId(), secondPage.getContent().get(0).getId());
+    }
 }
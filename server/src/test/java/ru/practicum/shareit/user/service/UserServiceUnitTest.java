@@ -11,6 +11,8 @@ import ru.practicum.shareit.user.model.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 
 import java.util.Collection;
 import java.util.Collections;
@@ -25,13 +27,15 @@ import static org.mockito.Mockito.*;
 public class UserServiceUnitTest {
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private UserExistenceIndex userExistenceIndex;
     private UserService userService;
     private UserDto userDto;
     private User user;
 
     @BeforeEach
     void setUp() {
-        userService = new UserService(userRepository);
+        userService = new UserService(userRepository, userExistenceIndex);
         userDto = UserDto.builder()
                 .id(1L)
                 .name("Paul")
@@ -62,9 +66,9 @@ public class UserServiceUnitTest {
 
     @Test
     void testFindAll() {
-        when(userRepository.findAll()).thenReturn(List.of(user));
+        when(userRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(user)));
 
-        Collection<UserDto> users = userService.findAll();
+        Collection<UserDto> users = userService.findAll(0, 10);
 
         assertNotNull(users);
         assertEquals(1, users.size());
@@ -72,9 +76,9 @@ public class UserServiceUnitTest {
 
     @Test
     void testFindAll_EmptyList() {
-        when(userRepository.findAll()).thenReturn(Collections.emptyList());
+        when(userRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(Collections.emptyList()));
 
-        Collection<UserDto> users = userService.findAll();
+        Collection<UserDto> users = userService.findAll(0, 10);
 
         assertTrue(users.isEmpty());
     }